@@ -5,23 +5,34 @@
 package com.yhon.dam.proyectodamnavidad;
 
 import com.yhon.dam.proyectodamnavidad.controller.LoginControlador;
-import com.yhon.dam.proyectodamnavidad.controller.LoginControlador.LoginResult;
 import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.yhon.dam.proyectodamnavidad.servicio.ConciliacionPuntos;
+import com.yhon.dam.proyectodamnavidad.servicio.EnvioCorreos;
+import com.yhon.dam.proyectodamnavidad.servicio.ResumenDiario;
+import com.yhon.dam.proyectodamnavidad.servicio.UsuarioServicio;
+import com.yhon.dam.proyectodamnavidad.util.DetectorBaseDatos;
 import com.yhon.dam.proyectodamnavidad.util.HibernateUtil;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
+import com.yhon.dam.proyectodamnavidad.util.VigilanteEdt;
+import com.yhon.dam.proyectodamnavidad.vista.IndicadorOcupado;
 import com.yhon.dam.proyectodamnavidad.vista.RecuperarPasswordVista;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import com.yhon.dam.proyectodamnavidad.vista.RegistroVista;
+import com.yhon.dam.proyectodamnavidad.vista.SplashVista;
 import com.yhon.dam.proyectodamnavidad.vista.TareasVista;
 import java.awt.Font;
 import java.awt.font.TextAttribute;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 
 /**
  * Ventana principal de la aplicación.
@@ -61,15 +72,62 @@ public class MainFrame extends javax.swing.JFrame implements I18nAware {
      * </p>
      */
     public MainFrame() {
+        this(HibernateUtil.listo());
+    }
+
+    /**
+     * Crea la ventana principal de inicio de sesión sobre un arranque de
+     * Hibernate ya iniciado.
+     *
+     * @param arranque futuro del arranque de Hibernate
+     */
+    public MainFrame(CompletableFuture<SessionFactory> arranque) {
         initComponents();
         I18n.setLanguage("es"); // idioma por defecto
         label4NormalFont = recuperarPassword.getFont();
-        inicializarDatos();
         getRootPane().setDefaultButton(jButton1);
         setLocationRelativeTo(null);
+        esperarBaseDatos(arranque);
 
     }
 
+    /**
+     * Deshabilita el inicio de sesión hasta que Hibernate esté listo.
+     * <p>
+     * La SessionFactory se construye en segundo plano; en cuanto está
+     * disponible se habilita el botón de login. Si el arranque falla,
+     * se informa al usuario.
+     * </p>
+     *
+     * @param listo futuro del arranque de Hibernate
+     */
+    private void esperarBaseDatos(CompletableFuture<SessionFactory> listo) {
+        if (listo.isDone() && !listo.isCompletedExceptionally()) {
+            return;
+        }
+
+        jButton1.setEnabled(false);
+
+        listo.whenComplete((sf, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex == null) {
+                jButton1.setEnabled(true);
+                return;
+            }
+
+            Object[] options = {I18n.t("common.ok")};
+            JOptionPane.showOptionDialog(
+                    this,
+                    I18n.t("splash.error"),
+                    I18n.t("common.error"),
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.ERROR_MESSAGE,
+                    null,
+                    options,
+                    options[0]
+            );
+        }));
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -254,7 +312,7 @@ public class MainFrame extends javax.swing.JFrame implements I18nAware {
         pack();
     }// </editor-fold>//GEN-END:initComponents
 
-    private void inicializarDatos() {
+    private static void inicializarDatos() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
 
             session.beginTransaction();
@@ -316,50 +374,50 @@ public class MainFrame extends javax.swing.JFrame implements I18nAware {
         String password = new String(jPasswordField1.getPassword());
 
         LoginControlador controller = new LoginControlador();
-        LoginResult result = controller.login(username, password);
-
-        switch (result) {
-            case OK:
-                Usuario usuario = controller.getUsuarioLogueado();
-
-                TareasVista vista = new TareasVista(usuario);
-                vista.setLocationRelativeTo(this);
-                vista.setVisible(true);
-
-                this.dispose(); // cerrar login
-                break;
-
-            case USER_NOT_FOUND:
-                Object[] options = {I18n.t("common.ok")};
-
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("login.userNotFound"),
-                        I18n.t("login.error"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.WARNING_MESSAGE,
-                        null,
-                        options,
-                        options[0]
-                );
-                break;
-
-            case WRONG_PASSWORD:
-                Object[] options2 = {I18n.t("common.ok")};
-
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("login.wrongPassword"),
-                        I18n.t("login.error"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.ERROR_MESSAGE,
-                        null,
-                        options2,
-                        options2[0]
-                );
-                break;
-        }
+        IndicadorOcupado.esperar(this, UsuarioServicio.login(controller, username, password), result -> {
+
+            switch (result) {
+                case OK:
+                    Usuario usuario = controller.getUsuarioLogueado();
+
+                    TareasVista vista = new TareasVista(usuario);
+                    vista.setLocationRelativeTo(this);
+                    vista.setVisible(true);
+
+                    this.dispose(); // cerrar login
+                    break;
+
+                case USER_NOT_FOUND:
+                    Object[] options = {I18n.t("common.ok")};
+
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("login.userNotFound"),
+                            I18n.t("login.error"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.WARNING_MESSAGE,
+                            null,
+                            options,
+                            options[0]
+                    );
+                    break;
 
+                case WRONG_PASSWORD:
+                    Object[] options2 = {I18n.t("common.ok")};
+
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("login.wrongPassword"),
+                            I18n.t("login.error"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.ERROR_MESSAGE,
+                            null,
+                            options2,
+                            options2[0]
+                    );
+                    break;
+            }
+        });
     }//GEN-LAST:event_jButton1ActionPerformed
 
     private void jMenu4ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jMenu4ActionPerformed
@@ -478,8 +536,52 @@ public class MainFrame extends javax.swing.JFrame implements I18nAware {
             Logger.getLogger(MainFrame.class.getName()).log(Level.SEVERE, null, ex);
         }
 
+        // Comprobar la base de datos en paralelo mientras se muestra el login
+        DetectorBaseDatos.iniciarSondeo();
+
+        // Medir la latencia del EDT y registrar los bloqueos
+        VigilanteEdt.iniciar();
+
+        // Hibernate se prepara fuera del EDT desde ya; las fases que se
+        // completan antes de que exista la ventana de arranque se
+        // muestran (la última) al crearla
+        AtomicReference<String> fase = new AtomicReference<>();
+        AtomicReference<SplashVista> ventanaArranque = new AtomicReference<>();
+        CompletableFuture<SessionFactory> arranque = HibernateUtil.iniciarEnSegundoPlano(texto -> {
+            fase.set(texto);
+            SplashVista s = ventanaArranque.get();
+            if (s != null) {
+                s.mostrarProgreso(texto);
+            }
+        });
+
         java.awt.EventQueue.invokeLater(() -> {
-            new MainFrame().setVisible(true);
+            MainFrame login = new MainFrame(arranque);
+            login.setVisible(true);
+
+            SplashVista splash = new SplashVista(login);
+            ventanaArranque.set(splash);
+            String ultimaFase = fase.get();
+            if (ultimaFase != null) {
+                splash.mostrarProgreso(ultimaFase);
+            }
+            splash.setVisible(true);
+
+            // Los datos iniciales también se preparan fuera del EDT
+            arranque
+                    .thenRun(() -> {
+                        splash.mostrarProgreso(I18n.t("splash.data"));
+                        inicializarDatos();
+                        ConciliacionPuntos.iniciar();
+                        EnvioCorreos.iniciar();
+                        ResumenDiario.iniciar();
+                    })
+                    .whenComplete((r, ex) -> {
+                        if (ex != null) {
+                            logger.log(Level.SEVERE, "Error en el arranque", ex);
+                        }
+                        splash.cerrar();
+                    });
         });
     }
 
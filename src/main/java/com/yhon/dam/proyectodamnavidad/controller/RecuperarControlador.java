@@ -6,9 +6,13 @@ package com.yhon.dam.proyectodamnavidad.controller;
 
 import com.yhon.dam.proyectodamnavidad.dao.UsuarioDAO;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
-import com.yhon.dam.proyectodamnavidad.util.EmailUtil;
+import com.yhon.dam.proyectodamnavidad.servicio.EnvioCorreos;
+import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.PasswordGenerator;
 import com.yhon.dam.proyectodamnavidad.util.PasswordUtil;
+import com.yhon.dam.proyectodamnavidad.util.Plantilla;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Controlador encargado del proceso de recuperación de contraseña.
@@ -18,6 +22,10 @@ import com.yhon.dam.proyectodamnavidad.util.PasswordUtil;
  * y enviarla por correo electrónico.
  * </p>
  *
+ * El correo se guarda en la bandeja de salida junto con la nueva
+ * contraseña y se envía en segundo plano, por lo que la recuperación
+ * no espera al servidor de correo ni falla si está caído.
+ *
  * @author yhon
  */
 public class RecuperarControlador {
@@ -42,8 +50,9 @@ public class RecuperarControlador {
      * <ol>
      *   <li>Busca el usuario por su email</li>
      *   <li>Genera una nueva contraseña aleatoria</li>
-     *   <li>Almacena el nuevo hash en la base de datos</li>
-     *   <li>Envía la nueva contraseña por correo electrónico</li>
+     *   <li>Almacena el nuevo hash en la base de datos y, en la misma
+     *   transacción, el correo con la nueva contraseña</li>
+     *   <li>Avisa al envío en segundo plano del correo</li>
      * </ol>
      *
      * @param email correo electrónico del usuario
@@ -60,14 +69,20 @@ public class RecuperarControlador {
             String nuevaPassword = PasswordGenerator.generar(10);
             String hash = PasswordUtil.hashPassword(nuevaPassword);
 
-            UsuarioDAO.actualizarPassword(u, hash);
-
-            EmailUtil.enviar(
+            Locale idioma = I18n.getLocale();
+            UsuarioDAO.actualizarPassword(
+                    u,
+                    hash,
                     email,
-                    "Recuperación de contraseña",
-                    "Tu nueva contraseña es:\n\n" + nuevaPassword
+                    I18n.t(idioma, "recover.mail.subject"),
+                    Plantilla.de("recuperacion", idioma).renderizar(Map.of(
+                            "usuario", u.getUsername(),
+                            "password", nuevaPassword
+                    ))
             );
 
+            EnvioCorreos.despertar();
+
             return Resultado.OK;
 
         } catch (Exception e) {
@@ -0,0 +1,25 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+/**
+ * Indica que una operación ha chocado con un cambio simultáneo de otra
+ * sesión (bloqueo optimista o tiempo de espera de un bloqueo agotado) y
+ * no ha podido completarse ni siquiera tras reintentarla.
+ * <p>
+ * Los datos no se han modificado: la operación puede repetirse después
+ * de volver a leerlos.
+ * </p>
+ *
+ * @author yhon
+ */
+public class ConflictoConcurrenciaException extends RuntimeException {
+
+    /**
+     * Crea la excepción.
+     *
+     * @param mensaje descripción del conflicto
+     * @param causa excepción original, o {@code null}
+     */
+    public ConflictoConcurrenciaException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,144 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente;
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente.Estado;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO de la bandeja de salida del correo ({@link CorreoSaliente}).
+ * <p>
+ * Los mensajes se añaden dentro de la transacción de la operación que
+ * los origina (ver {@link UsuarioDAO#actualizarPassword(
+ * com.yhon.dam.proyectodamnavidad.modelo.Usuario, String, String, String,
+ * String)}).
+ * Quien los envía primero los reserva: la reserva retrasa su siguiente
+ * intento con una actualización condicional, por lo que dos procesos
+ * (por ejemplo, dos instancias de la aplicación) no envían el mismo
+ * mensaje a la vez, y si el proceso se detiene a mitad de un envío el
+ * mensaje vuelve a estar disponible cuando vence la reserva.
+ * </p>
+ *
+ * <p>
+ * Las reservas, los reintentos y la hora de envío se calculan con el
+ * reloj de la base de datos ({@code local_datetime}), no con el de cada
+ * equipo: si dos instancias con los relojes desfasados comparten la base
+ * de datos, la reserva sigue impidiendo que envíen el mismo mensaje.
+ * </p>
+ *
+ * @author yhon
+ */
+public class CorreoDAO {
+
+    private CorreoDAO() {
+    }
+
+    /**
+     * Reserva los mensajes pendientes cuyo siguiente intento ya ha
+     * llegado, del más antiguo al más reciente.
+     *
+     * @param limite número máximo de mensajes
+     * @param reserva tiempo durante el que nadie más intentará enviarlos
+     * @return mensajes reservados
+     */
+    public static List<CorreoSaliente> reservarPendientes(int limite, Duration reserva) {
+        return Transaccion.ejecutar("CorreoDAO.reservarPendientes", session -> {
+            List<CorreoSaliente> vencidos = session.createQuery(
+                    "FROM CorreoSaliente c WHERE c.estado = :estado AND c.siguienteIntento <= local_datetime"
+                    + " ORDER BY c.siguienteIntento, c.id",
+                    CorreoSaliente.class
+            ).setParameter("estado", Estado.PENDIENTE)
+                    .setMaxResults(limite)
+                    .getResultList();
+
+            List<CorreoSaliente> reservados = new ArrayList<>();
+            for (CorreoSaliente c : vencidos) {
+                int actualizados = session.createMutationQuery(
+                        "UPDATE CorreoSaliente c SET c.siguienteIntento = local_datetime + :reserva second"
+                        + " WHERE c.id = :id AND c.estado = :estado AND c.siguienteIntento = :leido"
+                ).setParameter("reserva", reserva.toSeconds())
+                        .setParameter("id", c.getId())
+                        .setParameter("estado", Estado.PENDIENTE)
+                        .setParameter("leido", c.getSiguienteIntento())
+                        .executeUpdate();
+
+                if (actualizados == 1) {
+                    reservados.add(c);
+                }
+            }
+            return reservados;
+        });
+    }
+
+    /**
+     * Marca como enviado un mensaje y borra su texto.
+     * <p>
+     * Se llama justo después de enviar cada mensaje, y no al final del
+     * lote, para que una caída a mitad de lote no haga reenviar los que
+     * ya habían salido.
+     * </p>
+     *
+     * @param id identificador del mensaje
+     */
+    public static void marcarEnviado(Long id) {
+        Transaccion.ejecutar("CorreoDAO.marcarEnviado", session ->
+                session.createMutationQuery(
+                        "UPDATE CorreoSaliente c SET c.estado = :estado, c.enviadoEn = local_datetime,"
+                        + " c.cuerpo = NULL WHERE c.id = :id"
+                ).setParameter("estado", Estado.ENVIADO)
+                        .setParameter("id", id)
+                        .executeUpdate()
+        );
+    }
+
+    /**
+     * Registra un intento fallido y programa el siguiente.
+     *
+     * @param id identificador del mensaje
+     * @param error descripción del error
+     * @param espera tiempo hasta el siguiente intento
+     */
+    public static void reprogramar(Long id, String error, Duration espera) {
+        Transaccion.ejecutar("CorreoDAO.reprogramar", session ->
+                session.createMutationQuery(
+                        "UPDATE CorreoSaliente c SET c.intentos = c.intentos + 1,"
+                        + " c.siguienteIntento = local_datetime + :espera second,"
+                        + " c.ultimoError = :error WHERE c.id = :id"
+                ).setParameter("espera", espera.toSeconds())
+                        .setParameter("error", recortar(error))
+                        .setParameter("id", id)
+                        .executeUpdate()
+        );
+    }
+
+    /**
+     * Registra un intento fallido y descarta el mensaje, que no se
+     * vuelve a intentar. Se conserva (sin su texto) para poder consultar
+     * el error.
+     *
+     * @param id identificador del mensaje
+     * @param error descripción del error
+     */
+    public static void descartar(Long id, String error) {
+        Transaccion.ejecutar("CorreoDAO.descartar", session ->
+                session.createMutationQuery(
+                        "UPDATE CorreoSaliente c SET c.intentos = c.intentos + 1, c.estado = :estado,"
+                        + " c.ultimoError = :error, c.cuerpo = NULL WHERE c.id = :id"
+                ).setParameter("estado", Estado.DESCARTADO)
+                        .setParameter("error", recortar(error))
+                        .setParameter("id", id)
+                        .executeUpdate()
+        );
+    }
+
+    /**
+     * Recorta un mensaje de error al tamaño de su columna.
+     *
+     * @param error mensaje de error
+     * @return mensaje de como mucho 1000 caracteres
+     */
+    private static String recortar(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
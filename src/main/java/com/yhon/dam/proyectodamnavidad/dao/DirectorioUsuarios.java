@@ -0,0 +1,256 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+import com.yhon.dam.proyectodamnavidad.modelo.Rol;
+import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directorio de usuarios en memoria.
+ * <p>
+ * Carga la tabla de usuarios y mantiene índices por id, email y
+ * {@link Rol}, de modo que las búsquedas y los listados que alimentan los
+ * combos de las vistas no recorren la tabla en cada apertura de un
+ * diálogo. Las búsquedas por nombre de usuario (inicio de sesión y
+ * recarga del usuario autenticado) van siempre a la base de datos, así
+ * que no tienen índice aquí.
+ * </p>
+ *
+ * <p>
+ * Los DAO mantienen el directorio al día con escritura directa
+ * ({@link #actualizar(Usuario)}) cada vez que guardan un usuario o
+ * modifican su contraseña o sus puntos. Los cambios hechos por otra
+ * instancia de la aplicación (la base de datos H2 se comparte en modo
+ * {@code AUTO_SERVER}) no pasan por aquí, así que la tabla se vuelve a
+ * leer cuando la carga tiene más de {@value #CADUCIDAD_SEG} segundos.
+ * </p>
+ *
+ * <p>
+ * Los índices se publican como una instantánea inmutable, por lo que las
+ * lecturas no toman ningún cerrojo. Los usuarios de la instantánea nunca
+ * salen del directorio: cada lectura devuelve copias
+ * ({@link Usuario#copia()}), que quien las recibe puede modificar sin
+ * afectar a los demás hilos.
+ * </p>
+ *
+ * @author yhon
+ */
+final class DirectorioUsuarios {
+
+    /** Antigüedad máxima de la carga antes de volver a leer la tabla. */
+    private static final long CADUCIDAD_SEG = 30;
+
+    /**
+     * Instantánea inmutable de los índices.
+     */
+    private static final class Indices {
+
+        private final List<Usuario> todos;
+        private final Map<Long, Usuario> porId = new HashMap<>();
+        private final Map<String, Usuario> porEmail = new HashMap<>();
+        private final Map<Rol, List<Usuario>> porRol = new EnumMap<>(Rol.class);
+
+        /** Momento de la carga desde la base de datos ({@link System#nanoTime()}). */
+        private final long cargadoEn;
+
+        private Indices(List<Usuario> usuarios, long cargadoEn) {
+            this.cargadoEn = cargadoEn;
+            this.todos = Collections.unmodifiableList(new ArrayList<>(usuarios));
+
+            Map<Rol, List<Usuario>> roles = new EnumMap<>(Rol.class);
+            for (Usuario u : usuarios) {
+                porId.put(u.getId(), u);
+                if (u.getEmail() != null) {
+                    porEmail.put(u.getEmail(), u);
+                }
+                if (u.getRol() != null) {
+                    roles.computeIfAbsent(u.getRol(), r -> new ArrayList<>()).add(u);
+                }
+            }
+            roles.forEach((rol, lista) -> porRol.put(rol, Collections.unmodifiableList(lista)));
+        }
+
+        /**
+         * Indica si la carga es lo bastante reciente para usarla.
+         *
+         * @return {@code true} si no ha caducado
+         */
+        private boolean vigente() {
+            return System.nanoTime() - cargadoEn < TimeUnit.SECONDS.toNanos(CADUCIDAD_SEG);
+        }
+    }
+
+    /** Índices actuales ({@code null} si aún no se han cargado). */
+    private static volatile Indices indices;
+
+    /**
+     * Contador de escrituras. Evita publicar una carga que empezó antes
+     * de una escritura y que podría no incluirla.
+     */
+    private static long generacion;
+
+    private DirectorioUsuarios() {
+    }
+
+    /**
+     * Devuelve todos los usuarios del sistema.
+     *
+     * @return copias de los usuarios
+     */
+    static List<Usuario> todos() {
+        return copias(indices().todos);
+    }
+
+    /**
+     * Busca un usuario por su identificador.
+     *
+     * @param id identificador del usuario
+     * @return copia del usuario o {@code null} si no existe
+     */
+    static Usuario porId(Long id) {
+        return copia(indices().porId.get(id));
+    }
+
+    /**
+     * Busca un usuario por su email.
+     *
+     * @param email correo electrónico
+     * @return copia del usuario o {@code null} si no existe
+     */
+    static Usuario porEmail(String email) {
+        return copia(indices().porEmail.get(email));
+    }
+
+    /**
+     * Devuelve los usuarios con alguno de los roles indicados.
+     *
+     * @param roles roles buscados
+     * @return copias de los usuarios con esos roles
+     */
+    static List<Usuario> porRol(Rol... roles) {
+        Indices i = indices();
+        List<Usuario> resultado = new ArrayList<>();
+        for (Rol rol : roles) {
+            for (Usuario u : i.porRol.getOrDefault(rol, List.of())) {
+                resultado.add(u.copia());
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Añade o reemplaza un usuario en el directorio (escritura directa).
+     * <p>
+     * Se guarda una copia, de modo que el objeto recibido (normalmente la
+     * entidad de la transacción que lo ha modificado) se puede seguir
+     * usando. Cualquier carga en curso se descarta, porque podría haber
+     * leído los datos anteriores; si el directorio aún no se ha cargado,
+     * la siguiente lectura obtendrá los datos actualizados de la base de
+     * datos.
+     * </p>
+     *
+     * @param usuario usuario recién guardado o modificado
+     */
+    static synchronized void actualizar(Usuario usuario) {
+        if (usuario == null || usuario.getId() == null) {
+            return;
+        }
+
+        generacion++;
+        Indices actual = indices;
+        if (actual == null) {
+            return;
+        }
+
+        Usuario nuevo = usuario.copia();
+        List<Usuario> usuarios = new ArrayList<>(actual.todos.size() + 1);
+        boolean reemplazado = false;
+        for (Usuario u : actual.todos) {
+            if (u.getId().equals(nuevo.getId())) {
+                usuarios.add(nuevo);
+                reemplazado = true;
+            } else {
+                usuarios.add(u);
+            }
+        }
+        if (!reemplazado) {
+            usuarios.add(nuevo);
+        }
+
+        // Se conserva el momento de la carga: la escritura directa solo
+        // refleja los cambios de esta instancia
+        indices = new Indices(usuarios, actual.cargadoEn);
+    }
+
+    /**
+     * Devuelve los índices, cargándolos desde la base de datos si aún no
+     * se han cargado o si la carga ha caducado.
+     *
+     * @return índices actuales
+     */
+    private static Indices indices() {
+        Indices actual = indices;
+        if (actual != null && actual.vigente()) {
+            return actual;
+        }
+
+        long generacionCarga;
+        synchronized (DirectorioUsuarios.class) {
+            if (indices != null && indices.vigente()) {
+                return indices;
+            }
+            generacionCarga = generacion;
+        }
+
+        long inicio = System.nanoTime();
+
+        // La consulta se hace fuera del cerrojo para no bloquear a los
+        // hilos que solo actualizan o invalidan
+        List<Usuario> usuarios = Transaccion.leer("DirectorioUsuarios.cargar", session ->
+                session.createQuery(
+                        "FROM Usuario",
+                        Usuario.class
+                ).getResultList()
+        );
+
+        Indices cargados = new Indices(usuarios, inicio);
+        synchronized (DirectorioUsuarios.class) {
+            if (indices != null && indices.cargadoEn - inicio >= 0) {
+                return indices;
+            }
+            if (generacion == generacionCarga) {
+                indices = cargados;
+            }
+            return cargados;
+        }
+    }
+
+    /**
+     * Copia un usuario del directorio.
+     *
+     * @param usuario usuario del directorio, o {@code null}
+     * @return copia, o {@code null} si no hay usuario
+     */
+    private static Usuario copia(Usuario usuario) {
+        return usuario == null ? null : usuario.copia();
+    }
+
+    /**
+     * Copia una lista de usuarios del directorio.
+     *
+     * @param usuarios usuarios del directorio
+     * @return lista modificable con las copias
+     */
+    private static List<Usuario> copias(List<Usuario> usuarios) {
+        List<Usuario> resultado = new ArrayList<>(usuarios.size());
+        for (Usuario u : usuarios) {
+            resultado.add(u.copia());
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,274 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+import com.yhon.dam.proyectodamnavidad.modelo.MovimientoPuntos;
+import com.yhon.dam.proyectodamnavidad.modelo.MovimientoPuntos.Tipo;
+import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+import org.hibernate.Session;
+
+/**
+ * DAO del libro de movimientos de puntos.
+ * <p>
+ * Es el único punto en que cambian los puntos de un usuario: cada
+ * operación actualiza el saldo materializado ({@code usuarios.puntos})
+ * con una sentencia atómica e inserta su {@link MovimientoPuntos} en la
+ * misma transacción. Así el saldo se lee sin sumar nada y el historial
+ * no necesita recorrer otras tablas.
+ * </p>
+ *
+ * {@link #conciliar()} comprueba periódicamente que cada saldo coincide
+ * con la suma de sus movimientos.
+ *
+ * @author yhon
+ */
+public class MovimientoPuntosDAO {
+
+    private static final Logger logger = Logger.getLogger(MovimientoPuntosDAO.class.getName());
+
+    private MovimientoPuntosDAO() {
+    }
+
+    /**
+     * Suma puntos a un usuario (o los resta, si son negativos) y registra
+     * el movimiento.
+     * <p>
+     * El usuario no debe estar ya cargado en la sesión: se lee después
+     * de la actualización para obtener el saldo nuevo.
+     * </p>
+     *
+     * @param session sesión con la transacción activa
+     * @param usuarioId identificador del usuario
+     * @param puntos puntos a sumar
+     * @param tipo motivo del movimiento
+     * @param tareaId tarea relacionada, o {@code null}
+     * @param concepto descripción del movimiento
+     * @return usuario con el saldo actualizado
+     */
+    static Usuario sumar(
+            Session session,
+            Long usuarioId,
+            int puntos,
+            Tipo tipo,
+            Long tareaId,
+            String concepto
+    ) {
+        session.createMutationQuery(
+                "UPDATE VERSIONED Usuario u SET u.puntos = u.puntos + :puntos WHERE u.id = :id"
+        ).setParameter("puntos", puntos)
+                .setParameter("id", usuarioId)
+                .executeUpdate();
+
+        return registrar(session, usuarioId, puntos, tipo, tareaId, concepto);
+    }
+
+    /**
+     * Descuenta puntos a un usuario solo si tiene saldo suficiente y, en
+     * ese caso, registra el movimiento.
+     * <p>
+     * La comprobación y el descuento son una única sentencia
+     * condicional, por lo que dos canjes simultáneos (incluso desde
+     * instancias distintas de la aplicación) no pueden gastar el mismo
+     * saldo dos veces. Como en {@link #sumar}, el usuario no debe estar ya
+     * cargado en la sesión.
+     * </p>
+     *
+     * @param session sesión con la transacción activa
+     * @param usuarioId identificador del usuario
+     * @param puntos puntos a descontar
+     * @param tipo motivo del movimiento
+     * @param tareaId tarea relacionada, o {@code null}
+     * @param concepto descripción del movimiento
+     * @return usuario con el saldo actualizado, o {@code null} si el saldo
+     * no alcanza
+     */
+    static Usuario gastar(
+            Session session,
+            Long usuarioId,
+            int puntos,
+            Tipo tipo,
+            Long tareaId,
+            String concepto
+    ) {
+        int gastados = session.createMutationQuery(
+                "UPDATE VERSIONED Usuario u SET u.puntos = u.puntos - :puntos"
+                + " WHERE u.id = :id AND u.puntos >= :puntos"
+        ).setParameter("puntos", puntos)
+                .setParameter("id", usuarioId)
+                .executeUpdate();
+
+        if (gastados == 0) {
+            return null;
+        }
+        return registrar(session, usuarioId, -puntos, tipo, tareaId, concepto);
+    }
+
+    /**
+     * Inserta el movimiento de un cambio de saldo ya aplicado y programa
+     * la actualización del directorio de usuarios para cuando se confirme
+     * la transacción.
+     *
+     * @param session sesión con la transacción activa
+     * @param usuarioId identificador del usuario
+     * @param puntos puntos del movimiento
+     * @param tipo motivo del movimiento
+     * @param tareaId tarea relacionada, o {@code null}
+     * @param concepto descripción del movimiento
+     * @return usuario con el saldo actualizado
+     */
+    private static Usuario registrar(
+            Session session,
+            Long usuarioId,
+            int puntos,
+            Tipo tipo,
+            Long tareaId,
+            String concepto
+    ) {
+        Usuario u = session.get(Usuario.class, usuarioId);
+        session.persist(new MovimientoPuntos(u, puntos, tipo, tareaId, concepto));
+        Transaccion.alConfirmar(session, () -> DirectorioUsuarios.actualizar(u));
+        return u;
+    }
+
+    /**
+     * Obtiene los puntos netos que ha otorgado cada usuario una tarea al
+     * finalizarse (descontadas las finalizaciones ya deshechas).
+     *
+     * @param session sesión con la transacción activa
+     * @param tareaId identificador de la tarea
+     * @return pares {@code [usuarioId, puntos]} con puntos distintos de 0
+     */
+    static List<Object[]> puntosOtorgados(Session session, Long tareaId) {
+        return session.createQuery(
+                "SELECT m.usuario.id, SUM(m.puntos) FROM MovimientoPuntos m"
+                + " WHERE m.tareaId = :tarea AND m.tipo IN (:tipos)"
+                + " GROUP BY m.usuario.id HAVING SUM(m.puntos) <> 0",
+                Object[].class
+        ).setParameter("tarea", tareaId)
+                .setParameterList("tipos", List.of(Tipo.TAREA_FINALIZADA, Tipo.FINALIZACION_DESHECHA))
+                .getResultList();
+    }
+
+    /**
+     * Suma los movimientos de un usuario en un intervalo.
+     * <p>
+     * Se resuelve solo con el índice {@code (usuario, fecha, puntos)},
+     * sin leer la tabla, por lo que el coste depende del número de
+     * movimientos del intervalo y no del tamaño del libro.
+     * </p>
+     *
+     * @param usuarioId identificador del usuario
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @return variación del saldo en el intervalo
+     */
+    public static long sumarEntre(Long usuarioId, LocalDateTime desde, LocalDateTime hasta) {
+        return Transaccion.leer("MovimientoPuntosDAO.sumarEntre", session ->
+                session.createQuery(
+                        "SELECT COALESCE(SUM(m.puntos), 0) FROM MovimientoPuntos m"
+                        + " WHERE m.usuario.id = :usuario"
+                        + " AND m.fecha >= :desde AND m.fecha < :hasta",
+                        Long.class
+                ).setParameter("usuario", usuarioId)
+                        .setParameter("desde", desde)
+                        .setParameter("hasta", hasta)
+                        .getSingleResult()
+        );
+    }
+
+    /**
+     * Obtiene los movimientos de un usuario en un intervalo, del más
+     * reciente al más antiguo.
+     *
+     * @param usuarioId identificador del usuario
+     * @param desde inicio del intervalo (incluido)
+     * @param hasta fin del intervalo (excluido)
+     * @param limite número máximo de movimientos
+     * @return movimientos del intervalo
+     */
+    public static List<MovimientoPuntos> listarEntre(
+            Long usuarioId,
+            LocalDateTime desde,
+            LocalDateTime hasta,
+            int limite
+    ) {
+        return Transaccion.leer("MovimientoPuntosDAO.listarEntre", session ->
+                session.createQuery(
+                        "FROM MovimientoPuntos m WHERE m.usuario.id = :usuario"
+                        + " AND m.fecha >= :desde AND m.fecha < :hasta"
+                        + " ORDER BY m.fecha DESC, m.id DESC",
+                        MovimientoPuntos.class
+                ).setParameter("usuario", usuarioId)
+                        .setParameter("desde", desde)
+                        .setParameter("hasta", hasta)
+                        .setMaxResults(limite)
+                        .getResultList()
+        );
+    }
+
+    /**
+     * Comprueba que el saldo de cada usuario coincide con la suma de sus
+     * movimientos y corrige los que no.
+     * <p>
+     * El libro es la referencia: un saldo descuadrado (por ejemplo, por
+     * un cambio hecho con SQL directo) se sustituye por la suma de los
+     * movimientos. La corrección es condicional al saldo leído, de modo
+     * que un usuario que cambia a la vez se deja para la siguiente
+     * conciliación.
+     * </p>
+     *
+     * @return número de saldos corregidos
+     */
+    public static int conciliar() {
+        List<Object[]> descuadres = Transaccion.leer(
+                "MovimientoPuntosDAO.buscarDescuadres",
+                Transaccion.Aislamiento.LECTURA_REPETIBLE,
+                session -> session.createQuery(
+                        "SELECT u.id, u.puntos, COALESCE(SUM(m.puntos), 0) FROM Usuario u"
+                        + " LEFT JOIN MovimientoPuntos m ON m.usuario = u"
+                        + " GROUP BY u.id, u.puntos"
+                        + " HAVING u.puntos <> COALESCE(SUM(m.puntos), 0)",
+                        Object[].class
+                ).getResultList()
+        );
+
+        int corregidos = 0;
+        for (Object[] d : descuadres) {
+            Long usuarioId = (Long) d[0];
+            int saldo = (Integer) d[1];
+
+            boolean corregido = Transaccion.ejecutar("MovimientoPuntosDAO.conciliar", session -> {
+                long libro = session.createQuery(
+                        "SELECT COALESCE(SUM(m.puntos), 0) FROM MovimientoPuntos m"
+                        + " WHERE m.usuario.id = :usuario",
+                        Long.class
+                ).setParameter("usuario", usuarioId)
+                        .getSingleResult();
+
+                int actualizados = session.createMutationQuery(
+                        "UPDATE VERSIONED Usuario u SET u.puntos = :libro"
+                        + " WHERE u.id = :id AND u.puntos = :saldo"
+                ).setParameter("libro", (int) libro)
+                        .setParameter("id", usuarioId)
+                        .setParameter("saldo", saldo)
+                        .executeUpdate();
+
+                if (actualizados == 0) {
+                    return false;
+                }
+
+                Usuario u = session.get(Usuario.class, usuarioId);
+                Transaccion.alConfirmar(session, () -> DirectorioUsuarios.actualizar(u));
+                logger.warning("Saldo descuadrado del usuario " + usuarioId
+                        + ": " + saldo + " en usuarios, " + libro + " en el libro; corregido");
+                return true;
+            });
+
+            if (corregido) {
+                corregidos++;
+            }
+        }
+        return corregidos;
+    }
+}
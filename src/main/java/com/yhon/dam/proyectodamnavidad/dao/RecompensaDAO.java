@@ -7,7 +7,8 @@ package com.yhon.dam.proyectodamnavidad.dao;
 import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
 import com.yhon.dam.proyectodamnavidad.util.HibernateUtil;
 import java.util.List;
-import org.hibernate.Session;
+import org.hibernate.Cache;
+import org.hibernate.stat.CacheRegionStatistics;
 
 /**
  * DAO (Data Access Object) encargado de la gestión de recompensas.
@@ -16,25 +17,103 @@ import org.hibernate.Session;
  * en la base de datos utilizando Hibernate.
  * </p>
  *
+ * <p>
+ * El catálogo se sirve desde la caché de segundo nivel y la caché de
+ * consultas: tras la primera carga, abrir la ventana de recompensas no
+ * accede a la base de datos. Cualquier modificación del catálogo debe
+ * pasar por este DAO para invalidar la caché.
+ * </p>
+ *
  * @author yhon
  */
 public class RecompensaDAO {
 
+    /**
+     * Región de la caché de consultas para el catálogo completo.
+     */
+    public static final String REGION_CATALOGO = "recompensas.catalogo";
+
     /**
      * Obtiene la lista completa de recompensas disponibles.
      * <p>
      * Recupera todas las entidades {@link Recompensa} almacenadas
-     * en la base de datos.
+     * en la base de datos. El resultado se guarda en la caché de
+     * consultas.
      * </p>
      *
      * @return lista de recompensas
      */
     public static List<Recompensa> listar() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return Transaccion.leer("RecompensaDAO.listar", session -> {
             return session.createQuery(
                 "FROM Recompensa",
                 Recompensa.class
-            ).getResultList();
+            ).setCacheable(true)
+             .setCacheRegion(REGION_CATALOGO)
+             .getResultList();
+        });
+    }
+
+    /**
+     * Guarda una nueva recompensa en el catálogo.
+     * <p>
+     * Invalida la caché del catálogo para que la siguiente consulta
+     * incluya la nueva recompensa. Se guarda una copia ({@code merge}) y
+     * no el objeto recibido, para que un reintento de la transacción no
+     * lo encuentre ya con id.
+     * </p>
+     *
+     * @param recompensa recompensa a persistir
+     * @return {@code true} si se guarda correctamente, {@code false} en caso de error
+     */
+    public static boolean guardar(Recompensa recompensa) {
+        try {
+            return Transaccion.ejecutar("RecompensaDAO.guardar", session -> {
+                session.merge(recompensa);
+                return true;
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            invalidarCache();
         }
     }
+
+    /**
+     * Vacía la caché del catálogo de recompensas.
+     * <p>
+     * Debe llamarse siempre que el catálogo se modifique fuera de este
+     * DAO (por ejemplo, desde otra aplicación o con SQL directo).
+     * </p>
+     */
+    public static void invalidarCache() {
+        Cache cache = HibernateUtil.getSessionFactory().getCache();
+        cache.evictEntityData(Recompensa.class);
+        cache.evictQueryRegion(REGION_CATALOGO);
+    }
+
+    /**
+     * Devuelve las estadísticas (aciertos, fallos, elementos) de la caché
+     * de entidades {@link Recompensa}.
+     *
+     * @return estadísticas de la región de entidades
+     */
+    public static CacheRegionStatistics getEstadisticasEntidades() {
+        return HibernateUtil.getSessionFactory()
+                .getStatistics()
+                .getDomainDataRegionStatistics(Recompensa.REGION_CACHE);
+    }
+
+    /**
+     * Devuelve las estadísticas (aciertos, fallos, elementos) de la caché
+     * de la consulta del catálogo.
+     *
+     * @return estadísticas de la región de consultas del catálogo
+     */
+    public static CacheRegionStatistics getEstadisticasCatalogo() {
+        return HibernateUtil.getSessionFactory()
+                .getStatistics()
+                .getQueryRegionStatistics(REGION_CATALOGO);
+    }
 }
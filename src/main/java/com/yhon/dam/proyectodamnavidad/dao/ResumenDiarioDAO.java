@@ -0,0 +1,109 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+import com.yhon.dam.proyectodamnavidad.modelo.AvisoTarea;
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.exception.ConstraintViolationException;
+
+/**
+ * DAO del resumen diario de tareas pendientes.
+ * <p>
+ * Las tareas de todos los responsables se leen con una sola consulta por
+ * rango sobre el índice {@code (estado, fecha_limite)}, sea cual sea el
+ * número de usuarios. Los correos del resumen se guardan en la bandeja
+ * de salida ({@link CorreoDAO}) junto con la fila del día en
+ * {@code resumenes_diarios}, en la misma transacción: si otra instancia
+ * de la aplicación ya lo ha generado, la clave primaria lo impide y no
+ * se guarda nada.
+ * </p>
+ *
+ * @author yhon
+ */
+public class ResumenDiarioDAO {
+
+    /** Mensajes que se insertan antes de vaciar la sesión (lote JDBC). */
+    private static final int TRAMO = 50;
+
+    private ResumenDiarioDAO() {
+    }
+
+    /**
+     * Indica si ya se ha generado el resumen de un día.
+     *
+     * @param fecha día del resumen
+     * @return {@code true} si ya existe
+     */
+    public static boolean generado(LocalDate fecha) {
+        return Transaccion.leer("ResumenDiarioDAO.generado", session ->
+                session.createNativeQuery(
+                        "SELECT COUNT(*) FROM resumenes_diarios WHERE fecha = :fecha",
+                        Long.class
+                ).setParameter("fecha", fecha)
+                        .getSingleResult() > 0
+        );
+    }
+
+    /**
+     * Obtiene las tareas pendientes con fecha límite hasta un día
+     * (incluidas las vencidas) de los responsables con email, ordenadas
+     * por responsable y fecha límite.
+     *
+     * @param hasta último día incluido
+     * @return tareas que hay que avisar
+     */
+    public static List<AvisoTarea> listarPendientes(LocalDate hasta) {
+        return Transaccion.leer("ResumenDiarioDAO.listarPendientes", session ->
+                session.createQuery(
+                        "SELECT new com.yhon.dam.proyectodamnavidad.modelo.AvisoTarea("
+                        + "r.id, r.username, r.email, t.nombre, t.fechaLimite) "
+                        + "FROM Tarea t JOIN t.responsable r "
+                        + "WHERE t.estado = 'PENDIENTE' AND t.fechaLimite <= :hasta "
+                        + "AND r.email IS NOT NULL AND r.email <> '' "
+                        + "ORDER BY r.id, t.fechaLimite, t.id",
+                        AvisoTarea.class
+                ).setParameter("hasta", hasta)
+                        .getResultList()
+        );
+    }
+
+    /**
+     * Guarda los correos del resumen de un día y lo marca como generado.
+     * <p>
+     * Los mensajes recibidos solo aportan los datos: en cada intento de
+     * la transacción se guardan copias nuevas, para que un reintento no
+     * encuentre entidades que ya tienen id.
+     * </p>
+     *
+     * @param fecha día del resumen
+     * @param mensajes correos del resumen
+     * @return {@code true} si se han guardado; {@code false} si el
+     * resumen de ese día ya estaba generado
+     */
+    public static boolean guardar(LocalDate fecha, List<CorreoSaliente> mensajes) {
+        try {
+            return Transaccion.ejecutar("ResumenDiarioDAO.guardar", session -> {
+                // Primero la fila del día: si otra instancia la está
+                // insertando, se espera aquí y no tras guardar los correos
+                session.createNativeMutationQuery(
+                        "INSERT INTO resumenes_diarios (fecha, mensajes) VALUES (:fecha, :mensajes)"
+                ).setParameter("fecha", fecha)
+                        .setParameter("mensajes", mensajes.size())
+                        .executeUpdate();
+
+                for (int i = 0; i < mensajes.size(); i++) {
+                    CorreoSaliente m = mensajes.get(i);
+                    session.persist(new CorreoSaliente(m.getDestino(), m.getAsunto(), m.getCuerpo()));
+                    if ((i + 1) % TRAMO == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+                return true;
+            });
+
+        } catch (ConstraintViolationException e) {
+            return false;
+        }
+    }
+}
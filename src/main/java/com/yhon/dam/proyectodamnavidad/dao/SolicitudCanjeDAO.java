@@ -0,0 +1,106 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
+import com.yhon.dam.proyectodamnavidad.modelo.SolicitudCanje;
+import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import java.util.List;
+import org.hibernate.Session;
+
+/**
+ * DAO de las solicitudes de canje de recompensas.
+ * <p>
+ * Un canje crea una sola {@link SolicitudCanje} y sus aprobadores se
+ * insertan con una única sentencia, de modo que la transacción del canje
+ * hace el mismo número de escrituras sea cual sea el número de padres y
+ * madres. La aprobación es una actualización condicional: solo la
+ * primera de varias aprobaciones simultáneas tiene efecto.
+ * </p>
+ *
+ * @author yhon
+ */
+public class SolicitudCanjeDAO {
+
+    private SolicitudCanjeDAO() {
+    }
+
+    /**
+     * Crea la solicitud de un canje y asigna como aprobadores a todos los
+     * padres y madres.
+     *
+     * @param session sesión con la transacción activa
+     * @param solicitante usuario que canjea la recompensa
+     * @param recompensa recompensa canjeada
+     * @return solicitud creada
+     */
+    static SolicitudCanje crear(Session session, Usuario solicitante, Recompensa recompensa) {
+        SolicitudCanje s = new SolicitudCanje(solicitante, recompensa);
+        session.persist(s);
+        // El INSERT de la solicitud se retrasa hasta el flush (ids por
+        // bloques); tiene que existir antes que sus aprobadores
+        session.flush();
+
+        session.createNativeMutationQuery(
+                "INSERT INTO solicitudes_canje_aprobadores (solicitud, aprobador)"
+                + " SELECT :solicitud, id FROM usuarios WHERE rol IN ('PADRE', 'MADRE')"
+        ).setParameter("solicitud", s.getId())
+                .executeUpdate();
+
+        return s;
+    }
+
+    /**
+     * Obtiene las solicitudes pendientes que puede aprobar un usuario, de
+     * la más antigua a la más reciente.
+     * <p>
+     * Se cargan junto con el solicitante y la recompensa para poder
+     * mostrarlas fuera de la sesión.
+     * </p>
+     *
+     * @param aprobadorId identificador del aprobador
+     * @return solicitudes pendientes
+     */
+    public static List<SolicitudCanje> listarPendientes(Long aprobadorId) {
+        return Transaccion.leer("SolicitudCanjeDAO.listarPendientes", session ->
+                session.createQuery(
+                        "SELECT s FROM SolicitudCanje s"
+                        + " JOIN FETCH s.solicitante JOIN FETCH s.recompensa"
+                        + " JOIN s.aprobadores a"
+                        + " WHERE a.id = :aprobador AND s.estado = :estado"
+                        + " ORDER BY s.creadaEn, s.id",
+                        SolicitudCanje.class
+                ).setParameter("aprobador", aprobadorId)
+                        .setParameter("estado", SolicitudCanje.Estado.PENDIENTE)
+                        .getResultList()
+        );
+    }
+
+    /**
+     * Aprueba una solicitud pendiente.
+     * <p>
+     * La actualización solo se aplica si la solicitud sigue pendiente y
+     * el usuario es uno de sus aprobadores; si otro aprobador se ha
+     * adelantado, no cambia nada. La hora de la aprobación la pone la
+     * base de datos, igual que la de creación.
+     * </p>
+     *
+     * @param solicitudId identificador de la solicitud
+     * @param aprobadorId identificador del aprobador
+     * @return {@code true} si la solicitud se ha aprobado; {@code false}
+     * si ya estaba aprobada o el usuario no puede aprobarla
+     */
+    public static boolean aprobar(Long solicitudId, Long aprobadorId) {
+        return Transaccion.ejecutar("SolicitudCanjeDAO.aprobar", session ->
+                session.createMutationQuery(
+                        "UPDATE VERSIONED SolicitudCanje s"
+                        + " SET s.estado = :aprobada, s.aprobadaPor.id = :aprobador, s.aprobadaEn = local_datetime"
+                        + " WHERE s.id = :id AND s.estado = :pendiente"
+                        + " AND EXISTS (SELECT 1 FROM SolicitudCanje s2 JOIN s2.aprobadores a"
+                        + " WHERE s2.id = :id AND a.id = :aprobador)"
+                ).setParameter("aprobada", SolicitudCanje.Estado.APROBADA)
+                        .setParameter("pendiente", SolicitudCanje.Estado.PENDIENTE)
+                        .setParameter("aprobador", aprobadorId)
+                        .setParameter("id", solicitudId)
+                        .executeUpdate() == 1
+        );
+    }
+}
@@ -4,14 +4,32 @@
  */
 package com.yhon.dam.proyectodamnavidad.dao;
 
+import com.yhon.dam.proyectodamnavidad.modelo.CambiosTareas;
+import com.yhon.dam.proyectodamnavidad.modelo.CursorTarea;
+import com.yhon.dam.proyectodamnavidad.modelo.MovimientoPuntos;
 import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
+import com.yhon.dam.proyectodamnavidad.modelo.Rol;
 import com.yhon.dam.proyectodamnavidad.modelo.Tarea;
+import com.yhon.dam.proyectodamnavidad.modelo.TareaResumen;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
 import com.yhon.dam.proyectodamnavidad.util.HibernateUtil;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
-import org.hibernate.Transaction;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
 
 /**
  * DAO (Data Access Object) encargado de la gestión de tareas.
@@ -26,31 +44,101 @@ import org.hibernate.Transaction;
  * <li>Delegación de tareas</li>
  * </ul>
  *
- * Utiliza Hibernate para la persistencia de datos y gestiona manualmente las
- * transacciones cuando es necesario.
+ * Utiliza Hibernate para la persistencia de datos. Las transacciones se
+ * ejecutan con {@link Transaccion}: de solo lectura en los listados y con
+ * reintento ante conflictos en las operaciones que modifican datos.
  *
  * @author yhon
  */
 public class TareaDAO {
 
+    /**
+     * Sentido de avance en los listados paginados.
+     */
+    public enum Direccion {
+        /** Filas posteriores al cursor */
+        SIGUIENTE,
+        /** Filas anteriores al cursor */
+        ANTERIOR
+    }
+
+    /**
+     * Resultado de las operaciones que cambian el estado o el responsable
+     * de una tarea.
+     */
+    public enum Resultado {
+        /** La operación se ha realizado */
+        OK,
+        /** No se cumplen las condiciones (estado de la tarea o saldo de puntos) */
+        RECHAZADO,
+        /** Otra sesión ha modificado o eliminado la tarea desde que se leyó */
+        CONFLICTO,
+        /** Error inesperado */
+        ERROR
+    }
+
     /**
      * Coste en puntos de la acción especial "Que lo haga otro".
      */
     private static final int COSTE_QUE_LO_HAGA_OTRO = 1000;
 
+    /**
+     * Número de caracteres de la descripción que se incluyen en los
+     * listados.
+     */
+    private static final int LONGITUD_EXTRACTO = 100;
+
+    /**
+     * Filas que se traen en cada viaje a la base de datos al recorrer
+     * un listado completo con {@link #recorrerPorResponsable}.
+     */
+    private static final int TAMANIO_LOTE_RECORRIDO = 500;
+
+    /**
+     * Días que se conservan los registros de {@code tareas_eliminadas}.
+     */
+    private static final int DIAS_RETENCION_ELIMINADAS = 7;
+
+    /**
+     * Proyección común de los listados de tareas de un responsable.
+     */
+    private static final String SELECT_RESUMEN =
+            "SELECT new com.yhon.dam.proyectodamnavidad.modelo.TareaResumen("
+            + "t.id, t.nombre, substring(t.descripcion, 1, :extracto), "
+            + "a.username, r.id, r.username, "
+            + "t.fechaInicio, t.fechaLimite, t.estado, t.puntosRecompensa, t.version) "
+            + "FROM Tarea t JOIN t.asignadoPor a JOIN t.responsable r "
+            + "WHERE r.id = :resp";
+
+    /**
+     * Orden de los listados: fecha límite (sin fecha al final) e id.
+     */
+    private static final String ORDEN_ASCENDENTE =
+            " ORDER BY t.fechaLimite ASC NULLS LAST, t.id ASC";
+
+    /**
+     * Orden inverso, para leer la página anterior a un cursor.
+     */
+    private static final String ORDEN_DESCENDENTE =
+            " ORDER BY t.fechaLimite DESC NULLS FIRST, t.id DESC";
+
     /**
      * Guarda una nueva tarea en la base de datos.
+     * <p>
+     * Se guarda una copia ({@code merge}) y no el objeto recibido, para
+     * que un reintento de la transacción no lo encuentre ya con id.
+     * </p>
      *
      * @param tarea tarea a persistir
      * @return {@code true} si se guarda correctamente, {@code false} en caso de
      * error
      */
     public static boolean guardar(Tarea tarea) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            session.beginTransaction();
-            session.persist(tarea);
-            session.getTransaction().commit();
-            return true;
+        try {
+            return Transaccion.ejecutar("TareaDAO.guardar", session -> {
+                session.merge(tarea);
+                return true;
+            });
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -63,202 +151,656 @@ public class TareaDAO {
      * @return lista de usuarios con rol parental
      */
     public static List<Usuario> listarPadres() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                    "FROM Usuario u WHERE u.rol IN ('PADRE', 'MADRE')",
-                    Usuario.class
-            ).getResultList();
-        }
+        return UsuarioDAO.listarPorRol(Rol.PADRE, Rol.MADRE);
     }
 
     /**
      * Obtiene las tareas asignadas a un responsable concreto.
+     * <p>
+     * Los usuarios asociados se cargan en la misma consulta
+     * ({@code JOIN FETCH}), por lo que pueden usarse fuera de la sesión.
+     * </p>
      *
      * @param responsable usuario responsable de las tareas
      * @return lista de tareas asignadas
      */
     public static List<Tarea> listarPorResponsable(Usuario responsable) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return Transaccion.leer("TareaDAO.listarPorResponsable", session -> {
             return session.createQuery(
-                    "FROM Tarea t WHERE t.responsable = :resp",
+                    "SELECT t FROM Tarea t "
+                    + "JOIN FETCH t.asignadoPor "
+                    + "JOIN FETCH t.responsable "
+                    + "WHERE t.responsable.id = :resp",
                     Tarea.class
-            ).setParameter("resp", responsable)
+            ).setParameter("resp", responsable.getId())
+                    .getResultList();
+        });
+    }
+
+    /**
+     * Obtiene el resumen de las tareas asignadas a un responsable.
+     * <p>
+     * Devuelve únicamente las columnas que muestra la tabla de tareas,
+     * con los nombres de usuario resueltos mediante joins, en una sola
+     * consulta independientemente del número de filas. De la descripción
+     * solo se lee un extracto; la completa se obtiene con
+     * {@link #obtenerDescripcion(Long)}.
+     * </p>
+     *
+     * @param responsableId identificador del responsable
+     * @return resúmenes de las tareas, ordenados por fecha límite
+     */
+    public static List<TareaResumen> listarResumenPorResponsable(Long responsableId) {
+        return Transaccion.leer("TareaDAO.listarResumenPorResponsable", session -> {
+            return session.createQuery(
+                    SELECT_RESUMEN + ORDEN_ASCENDENTE,
+                    TareaResumen.class
+            ).setParameter("resp", responsableId)
+                    .setParameter("extracto", LONGITUD_EXTRACTO)
                     .getResultList();
+        });
+    }
+
+    /**
+     * Obtiene una página de las tareas de un responsable.
+     * <p>
+     * Usa paginación por clave ({@code keyset}) sobre
+     * {@code (fechaLimite, id)}: la página se pide a partir de un cursor
+     * y no con {@code OFFSET}, por lo que el coste de cada página depende
+     * solo de su tamaño y no de cuántas tareas haya antes.
+     * </p>
+     *
+     * <ul>
+     * <li>Con {@link Direccion#SIGUIENTE} y sin cursor se obtiene la
+     * primera página; con cursor, las filas posteriores a él.</li>
+     * <li>Con {@link Direccion#ANTERIOR} y sin cursor se obtiene la
+     * última página; con cursor, las filas anteriores a él.</li>
+     * </ul>
+     *
+     * En ambos casos las filas se devuelven en orden ascendente.
+     *
+     * @param responsableId identificador del responsable
+     * @param estado estado de las tareas ({@code null} para todos)
+     * @param cursor fila desde la que se avanza ({@code null} para un extremo)
+     * @param direccion sentido de avance
+     * @param tamanio número máximo de filas de la página
+     * @return filas de la página, en orden ascendente
+     * @throws IllegalArgumentException si el tamaño no es positivo
+     */
+    public static List<TareaResumen> listarPagina(
+            Long responsableId,
+            String estado,
+            CursorTarea cursor,
+            Direccion direccion,
+            int tamanio
+    ) {
+        if (tamanio <= 0) {
+            throw new IllegalArgumentException("Tamaño de página no válido: " + tamanio);
         }
+
+        boolean adelante = direccion == Direccion.SIGUIENTE;
+
+        StringBuilder hql = new StringBuilder(SELECT_RESUMEN);
+        if (estado != null) {
+            hql.append(" AND t.estado = :estado");
+        }
+        if (cursor != null) {
+            hql.append(condicionCursor(cursor, adelante));
+        }
+        hql.append(adelante ? ORDEN_ASCENDENTE : ORDEN_DESCENDENTE);
+
+        return Transaccion.leer("TareaDAO.listarPagina", session -> {
+            Query<TareaResumen> query = session.createQuery(hql.toString(), TareaResumen.class)
+                    .setParameter("resp", responsableId)
+                    .setParameter("extracto", LONGITUD_EXTRACTO)
+                    .setMaxResults(tamanio);
+
+            if (estado != null) {
+                query.setParameter("estado", estado);
+            }
+            if (cursor != null) {
+                asignarCursor(query, cursor);
+            }
+
+            List<TareaResumen> pagina = new ArrayList<>(query.getResultList());
+            if (!adelante) {
+                Collections.reverse(pagina);
+            }
+            return pagina;
+        });
     }
 
     /**
-     * Marca una tarea como finalizada y asigna los puntos al responsable.
+     * Devuelve la condición HQL que selecciona las filas posteriores o
+     * anteriores a un cursor en el orden del listado.
      * <p>
-     * Si la tarea ya está finalizada, no se realiza ninguna acción.
+     * Usa los parámetros {@code :fecha} (si el cursor tiene fecha) e
+     * {@code :id}, que se asignan con {@link #asignarCursor}.
      * </p>
      *
-     * @param tarea tarea a finalizar
+     * @param cursor fila de referencia
+     * @param posteriores {@code true} para las filas posteriores,
+     * {@code false} para las anteriores
+     * @return condición que empieza por {@code AND}
      */
-    public static void marcarFinalizada(Tarea tarea) {
+    private static String condicionCursor(CursorTarea cursor, boolean posteriores) {
+        // Las tareas sin fecha límite van al final del orden ascendente
+        if (cursor.getFechaLimite() == null) {
+            return posteriores
+                    ? " AND t.fechaLimite IS NULL AND t.id > :id"
+                    : " AND (t.fechaLimite IS NOT NULL OR t.id < :id)";
+        }
+        return posteriores
+                ? " AND (t.fechaLimite > :fecha"
+                + " OR (t.fechaLimite = :fecha AND t.id > :id)"
+                + " OR t.fechaLimite IS NULL)"
+                : " AND (t.fechaLimite < :fecha"
+                + " OR (t.fechaLimite = :fecha AND t.id < :id))";
+    }
 
-        Session session = HibernateUtil.getSessionFactory().openSession();
-        Transaction tx = null;
+    /**
+     * Asigna los parámetros de {@link #condicionCursor}.
+     *
+     * @param query consulta
+     * @param cursor fila de referencia
+     */
+    private static void asignarCursor(Query<?> query, CursorTarea cursor) {
+        query.setParameter("id", cursor.getId());
+        if (cursor.getFechaLimite() != null) {
+            query.setParameter("fecha", cursor.getFechaLimite());
+        }
+    }
 
-        try {
-            tx = session.beginTransaction();
+    /**
+     * Obtiene una página de las tareas de un responsable a partir de su
+     * posición.
+     * <p>
+     * Usa {@code OFFSET}, cuyo coste crece con la posición. Solo debe
+     * usarse cuando no se dispone de un cursor, por ejemplo al saltar
+     * directamente a una zona lejana de un listado; en el resto de
+     * casos debe usarse {@link #listarPagina}.
+     * </p>
+     *
+     * @param responsableId identificador del responsable
+     * @param estado estado de las tareas ({@code null} para todos)
+     * @param desde posición de la primera fila (empezando en 0)
+     * @param tamanio número máximo de filas de la página
+     * @return filas de la página, en orden ascendente
+     */
+    public static List<TareaResumen> listarPaginaPorPosicion(
+            Long responsableId,
+            String estado,
+            int desde,
+            int tamanio
+    ) {
+        String hql = SELECT_RESUMEN
+                + (estado != null ? " AND t.estado = :estado" : "")
+                + ORDEN_ASCENDENTE;
+
+        return Transaccion.leer("TareaDAO.listarPaginaPorPosicion", session -> {
+            Query<TareaResumen> query = session.createQuery(hql, TareaResumen.class)
+                    .setParameter("resp", responsableId)
+                    .setParameter("extracto", LONGITUD_EXTRACTO)
+                    .setFirstResult(desde)
+                    .setMaxResults(tamanio);
+
+            if (estado != null) {
+                query.setParameter("estado", estado);
+            }
+            return query.getResultList();
+        });
+    }
 
-            Tarea t = session.get(Tarea.class, tarea.getId());
+    /**
+     * Cuenta las tareas de un responsable.
+     *
+     * @param responsableId identificador del responsable
+     * @param estado estado de las tareas ({@code null} para todos)
+     * @return número de tareas
+     */
+    public static int contarPorResponsable(Long responsableId, String estado) {
+        String hql = "SELECT count(t) FROM Tarea t WHERE t.responsable.id = :resp"
+                + (estado != null ? " AND t.estado = :estado" : "");
 
-            if ("FINALIZADA".equals(t.getEstado())) {
-                tx.rollback();
-                return;
+        return Transaccion.leer("TareaDAO.contarPorResponsable", session -> {
+            Query<Long> query = session.createQuery(hql, Long.class)
+                    .setParameter("resp", responsableId);
+
+            if (estado != null) {
+                query.setParameter("estado", estado);
             }
+            return query.uniqueResult().intValue();
+        });
+    }
 
-            t.setEstado("FINALIZADA");
+    /**
+     * Devuelve la fecha y hora actuales según la base de datos.
+     * <p>
+     * Marca el punto de partida del refresco incremental: los cambios
+     * se comparan con el reloj de la base de datos, que es el que
+     * rellena {@code actualizado_en}.
+     * </p>
+     *
+     * @return fecha y hora de la base de datos
+     */
+    public static LocalDateTime ahora() {
+        return Transaccion.leer("TareaDAO.ahora", session -> {
+            return session.createQuery("SELECT local_datetime", LocalDateTime.class)
+                    .getSingleResult();
+        });
+    }
 
-            Usuario responsable = t.getResponsable();
-            responsable.setPuntos(
-                    responsable.getPuntos() + t.getPuntosRecompensa()
-            );
+    /**
+     * Obtiene los cambios en la lista de tareas de un responsable desde
+     * un momento dado.
+     * <p>
+     * Lee las tareas del responsable con {@code actualizado_en} posterior
+     * a {@code desde}, distinguiendo las que han entrado en la lista
+     * ({@code asignada_en} posterior), y las que han salido de ella según
+     * {@code tareas_eliminadas}. Para cada tarea nueva o salida cuenta
+     * cuántas la preceden en el listado, de modo que quien aplique los
+     * cambios sepa su posición. El coste depende del número de cambios,
+     * no del tamaño de la lista.
+     * </p>
+     *
+     * <p>
+     * Devuelve {@code null} si hay más de {@code limite} cambios o si
+     * {@code desde} es anterior al periodo en que se conservan las tareas
+     * eliminadas; en ambos casos conviene recargar el listado completo.
+     * </p>
+     *
+     * <p>
+     * Los cambios de transacciones que aún no han confirmado al hacer la
+     * consulta quedan fuera aunque su marca de tiempo sea anterior a
+     * {@link CambiosTareas#getHasta()}. Por eso quien refresca no debe
+     * usar {@code hasta} tal cual como siguiente {@code desde}, sino
+     * restarle un margen y descartar los cambios que ya había aplicado.
+     * Las tareas que entraron dentro de ese margen se dejan de ver como
+     * salidas, porque se cuentan como entradas y salidas del mismo
+     * periodo; {@code conocidas} indica las que quien refresca ya tiene,
+     * para que sus salidas sí se devuelvan.
+     * </p>
+     *
+     * @param responsableId identificador del responsable
+     * @param desde momento del último refresco (según {@link #ahora()})
+     * @param conocidas tareas que ya están en la lista de quien refresca
+     * aunque hayan entrado después de {@code desde}
+     * @param limite número máximo de cambios que se devuelven
+     * @return cambios desde {@code desde} o {@code null} si hay que recargar
+     */
+    public static CambiosTareas cambiosDesde(Long responsableId, LocalDateTime desde,
+            Collection<Long> conocidas, int limite) {
+        return Transaccion.leer("TareaDAO.cambiosDesde", Transaccion.Aislamiento.LECTURA_REPETIBLE, session -> {
+            LocalDateTime hasta = session.createQuery("SELECT local_datetime", LocalDateTime.class)
+                    .getSingleResult();
+
+            if (desde.isBefore(hasta.minusDays(DIAS_RETENCION_ELIMINADAS))) {
+                return null;
+            }
 
-            session.update(responsable);
-            session.update(t);
+            List<TareaResumen> modificadas = session.createQuery(
+                    SELECT_RESUMEN + " AND t.actualizadoEn > :desde" + ORDEN_ASCENDENTE,
+                    TareaResumen.class
+            ).setParameter("resp", responsableId)
+                    .setParameter("extracto", LONGITUD_EXTRACTO)
+                    .setParameter("desde", desde)
+                    .setMaxResults(limite + 1)
+                    .getResultList();
 
-            tx.commit();
+            NativeQuery<Object[]> consultaSalidas = session.createNativeQuery(
+                    "SELECT tarea_id, fecha_limite FROM tareas_eliminadas"
+                    + " WHERE responsable = :resp AND eliminada_en > :desde"
+                    + (conocidas.isEmpty()
+                            ? " AND asignada_en <= :desde"
+                            : " AND (asignada_en <= :desde OR tarea_id IN (:conocidas))"),
+                    Object[].class
+            ).addScalar("tarea_id", Long.class)
+                    .addScalar("fecha_limite", LocalDate.class)
+                    .setParameter("resp", responsableId)
+                    .setParameter("desde", desde);
+            if (!conocidas.isEmpty()) {
+                consultaSalidas.setParameterList("conocidas", conocidas);
+            }
+            List<Object[]> filasSalidas = consultaSalidas
+                    .setMaxResults(limite + 1)
+                    .getResultList();
 
-        } catch (Exception e) {
-            if (tx != null) {
-                tx.rollback();
+            if (modificadas.size() + filasSalidas.size() > limite) {
+                return null;
+            }
+
+            Set<Long> nuevas = new HashSet<>(session.createQuery(
+                    "SELECT t.id FROM Tarea t WHERE t.responsable.id = :resp"
+                    + " AND t.actualizadoEn > :desde AND t.asignadaEn > :desde",
+                    Long.class
+            ).setParameter("resp", responsableId)
+                    .setParameter("desde", desde)
+                    .getResultList());
+
+            List<CursorTarea> salidas = new ArrayList<>();
+            for (Object[] fila : filasSalidas) {
+                salidas.add(new CursorTarea((LocalDate) fila[1], (Long) fila[0]));
+            }
+
+            Map<Long, Integer> anteriores = new HashMap<>();
+            for (TareaResumen t : modificadas) {
+                if (nuevas.contains(t.getId())) {
+                    anteriores.put(t.getId(), contarAnteriores(session, responsableId, CursorTarea.de(t)));
+                }
+            }
+            for (CursorTarea c : salidas) {
+                anteriores.putIfAbsent(c.getId(), contarAnteriores(session, responsableId, c));
+            }
+
+            return new CambiosTareas(hasta, modificadas, nuevas, salidas, anteriores);
+        });
+    }
+
+    /**
+     * Cuenta las tareas de un responsable que preceden a una posición
+     * del listado.
+     *
+     * @param session sesión abierta
+     * @param responsableId identificador del responsable
+     * @param cursor posición de referencia
+     * @return número de tareas anteriores
+     */
+    private static int contarAnteriores(Session session, Long responsableId, CursorTarea cursor) {
+        Query<Long> query = session.createQuery(
+                "SELECT count(t) FROM Tarea t WHERE t.responsable.id = :resp"
+                + condicionCursor(cursor, false),
+                Long.class
+        ).setParameter("resp", responsableId);
+
+        asignarCursor(query, cursor);
+        return query.uniqueResult().intValue();
+    }
+
+    /**
+     * Registra que una tarea sale de la lista de su responsable actual
+     * (por eliminarse o delegarse), para el refresco incremental.
+     * <p>
+     * Debe llamarse dentro de la transacción de la operación y antes de
+     * modificar la tarea.
+     * </p>
+     *
+     * @param session sesión con la transacción activa
+     * @param tareaId identificador de la tarea
+     */
+    private static void registrarSalida(Session session, Long tareaId) {
+        session.createNativeMutationQuery(
+                "INSERT INTO tareas_eliminadas (tarea_id, responsable, fecha_limite, asignada_en)"
+                + " SELECT id, responsable, fecha_limite, asignada_en FROM tareas WHERE id = :id"
+        ).setParameter("id", tareaId)
+                .executeUpdate();
+    }
+
+    /**
+     * Recorre todas las tareas de un responsable sin cargarlas en memoria.
+     * <p>
+     * Pensado para exportaciones: las filas se leen con un cursor de
+     * solo avance ({@code ScrollableResults}) en una sesión sin estado,
+     * en lotes de {@value #TAMANIO_LOTE_RECORRIDO}, y se entregan una a
+     * una al consumidor en el mismo orden que {@link #listarPagina}.
+     * </p>
+     *
+     * @param responsableId identificador del responsable
+     * @param estado estado de las tareas ({@code null} para todos)
+     * @param consumidor receptor de cada fila
+     * @return número de filas recorridas
+     */
+    public static long recorrerPorResponsable(
+            Long responsableId,
+            String estado,
+            Consumer<TareaResumen> consumidor
+    ) {
+        String hql = SELECT_RESUMEN
+                + (estado != null ? " AND t.estado = :estado" : "")
+                + ORDEN_ASCENDENTE;
+
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Query<TareaResumen> query = session.createQuery(hql, TareaResumen.class)
+                    .setParameter("resp", responsableId)
+                    .setParameter("extracto", LONGITUD_EXTRACTO)
+                    .setFetchSize(TAMANIO_LOTE_RECORRIDO);
+
+            if (estado != null) {
+                query.setParameter("estado", estado);
             }
+
+            long total = 0;
+            try (ScrollableResults<TareaResumen> filas = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (filas.next()) {
+                    consumidor.accept(filas.get());
+                    total++;
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Obtiene la descripción completa de una tarea.
+     * <p>
+     * Los listados no cargan la descripción (atributo perezoso); se pide
+     * con este método al seleccionar una fila.
+     * </p>
+     *
+     * @param tareaId identificador de la tarea
+     * @return descripción de la tarea o {@code null} si no tiene
+     */
+    public static String obtenerDescripcion(Long tareaId) {
+        return Transaccion.leer("TareaDAO.obtenerDescripcion", session -> {
+            return session.createQuery(
+                    "SELECT t.descripcion FROM Tarea t WHERE t.id = :id",
+                    String.class
+            ).setParameter("id", tareaId)
+                    .uniqueResult();
+        });
+    }
+
+    /**
+     * Marca una tarea como finalizada y asigna los puntos al responsable.
+     * <p>
+     * La tarea solo se finaliza si sigue en la versión que se mostró al
+     * usuario; si otra sesión la ha modificado o eliminado entretanto, no
+     * se cambia nada y se devuelve {@link Resultado#CONFLICTO}. Si ya
+     * estaba finalizada, se devuelve {@link Resultado#RECHAZADO}.
+     * </p>
+     *
+     * Si se finaliza, la tarea queda en la versión {@code version + 1}
+     * (la sentencia es {@code UPDATE VERSIONED}), que es la que espera
+     * {@link #deshacerFinalizacion(Long, long)}.
+     *
+     * @param tareaId identificador de la tarea a finalizar
+     * @param version versión de la tarea al leerla
+     * @return resultado de la operación
+     */
+    public static Resultado marcarFinalizada(Long tareaId, long version) {
+        try {
+            return Transaccion.ejecutar("TareaDAO.marcarFinalizada", session -> {
+                int finalizadas = session.createMutationQuery(
+                        "UPDATE VERSIONED Tarea t SET t.estado = 'FINALIZADA'"
+                        + " WHERE t.id = :id AND t.version = :version"
+                        + " AND t.estado <> 'FINALIZADA'"
+                ).setParameter("id", tareaId)
+                        .setParameter("version", version)
+                        .executeUpdate();
+
+                if (finalizadas == 0) {
+                    Resultado motivo = motivoRechazo(session, tareaId, version);
+                    session.getTransaction().rollback();
+                    return motivo;
+                }
+
+                Object[] recompensa = session.createQuery(
+                        "SELECT t.responsable.id, t.puntosRecompensa, t.nombre FROM Tarea t WHERE t.id = :id",
+                        Object[].class
+                ).setParameter("id", tareaId)
+                        .uniqueResult();
+
+                MovimientoPuntosDAO.sumar(
+                        session,
+                        (Long) recompensa[0],
+                        (Integer) recompensa[1],
+                        MovimientoPuntos.Tipo.TAREA_FINALIZADA,
+                        tareaId,
+                        "Tarea: " + recompensa[2]
+                );
+                return Resultado.OK;
+            });
+
+        } catch (ConflictoConcurrenciaException e) {
+            return Resultado.CONFLICTO;
+        } catch (Exception e) {
             e.printStackTrace();
-        } finally {
-            session.close();
+            return Resultado.ERROR;
         }
     }
 
+    /**
+     * Averigua por qué no se ha podido modificar una tarea con una
+     * sentencia condicional.
+     *
+     * @param session sesión con la transacción activa
+     * @param tareaId identificador de la tarea
+     * @param version versión con la que se intentó modificar
+     * @return {@link Resultado#CONFLICTO} si la tarea ya no existe o ha
+     * cambiado de versión; {@link Resultado#RECHAZADO} si no estaba en el
+     * estado requerido
+     */
+    private static Resultado motivoRechazo(Session session, Long tareaId, long version) {
+        Long actual = session.createQuery(
+                "SELECT t.version FROM Tarea t WHERE t.id = :id",
+                Long.class
+        ).setParameter("id", tareaId)
+                .uniqueResult();
+
+        return actual == null || actual != version
+                ? Resultado.CONFLICTO
+                : Resultado.RECHAZADO;
+    }
+
     /**
      * Obtiene la lista completa de usuarios del sistema.
      * <p>
      * Se utiliza principalmente para poblar componentes gráficos como
-     * JComboBox.
+     * JComboBox. Delega en {@link UsuarioDAO#listarUsuarios()}, que lo
+     * resuelve desde el directorio de usuarios en memoria.
      * </p>
      *
      * @return lista de usuarios
      */
     public static List<Usuario> listarUsuarios() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                    "FROM Usuario",
-                    Usuario.class
-            ).getResultList();
-        }
+        return UsuarioDAO.listarUsuarios();
     }
 
     /**
      * Canjea la acción especial "Que lo haga otro".
      * <p>
      * Permite a un usuario pagar puntos para reasignar una tarea pendiente a
-     * otro usuario.
+     * otro usuario. Como en {@link #marcarFinalizada(Long, long)}, la tarea
+     * solo se delega si sigue en la versión que se mostró al usuario.
      * </p>
      *
      * @param usuario usuario que realiza el canje
-     * @param tarea tarea a reasignar
+     * @param tareaId identificador de la tarea a reasignar
+     * @param version versión de la tarea al leerla
      * @param nuevoResponsable nuevo responsable de la tarea
-     * @return {@code true} si el canje se realiza correctamente
+     * @return {@link Resultado#OK} si se delega; {@link Resultado#RECHAZADO}
+     * si la tarea no está pendiente o no hay puntos suficientes;
+     * {@link Resultado#CONFLICTO} si otra sesión ha modificado la tarea
      */
-    public static boolean canjearQueLoHagaOtro(
+    public static Resultado canjearQueLoHagaOtro(
             Usuario usuario,
-            Tarea tarea,
+            Long tareaId,
+            long version,
             Usuario nuevoResponsable
     ) {
-
-        Session session = HibernateUtil.getSessionFactory().openSession();
-        Transaction tx = null;
-
         try {
-            tx = session.beginTransaction();
-
-            Usuario u = session.get(Usuario.class, usuario.getId());
-            Tarea t = session.get(Tarea.class, tarea.getId());
-
-            if (!"PENDIENTE".equals(t.getEstado())) {
-                tx.rollback();
-                return false;
-            }
-
-            if (u.getPuntos() < COSTE_QUE_LO_HAGA_OTRO) {
-                tx.rollback();
-                return false;
-            }
-
-            u.setPuntos(u.getPuntos() - COSTE_QUE_LO_HAGA_OTRO);
-            t.setResponsable(nuevoResponsable);
-
-            session.update(u);
-            session.update(t);
-
-            tx.commit();
-            return true;
-
+            return Transaccion.ejecutar("TareaDAO.canjearQueLoHagaOtro", session -> {
+                registrarSalida(session, tareaId);
+
+                // Solo se delega si sigue pendiente y sin cambios; entra en
+                // la lista del nuevo responsable
+                int delegadas = session.createMutationQuery(
+                        "UPDATE VERSIONED Tarea t"
+                        + " SET t.responsable = :nuevo, t.asignadaEn = local_datetime"
+                        + " WHERE t.id = :id AND t.version = :version"
+                        + " AND t.estado = 'PENDIENTE'"
+                ).setParameter("nuevo", session.getReference(Usuario.class, nuevoResponsable.getId()))
+                        .setParameter("id", tareaId)
+                        .setParameter("version", version)
+                        .executeUpdate();
+
+                if (delegadas == 0) {
+                    Resultado motivo = motivoRechazo(session, tareaId, version);
+                    session.getTransaction().rollback();
+                    return motivo;
+                }
+
+                Usuario u = MovimientoPuntosDAO.gastar(
+                        session,
+                        usuario.getId(),
+                        COSTE_QUE_LO_HAGA_OTRO,
+                        MovimientoPuntos.Tipo.DELEGACION,
+                        tareaId,
+                        "Que lo haga otro: " + nuevoResponsable.getUsername()
+                );
+                if (u == null) {
+                    session.getTransaction().rollback();
+                    return Resultado.RECHAZADO;
+                }
+                return Resultado.OK;
+            });
+
+        } catch (ConflictoConcurrenciaException e) {
+            return Resultado.CONFLICTO;
         } catch (Exception e) {
-            if (tx != null) {
-                tx.rollback();
-            }
             e.printStackTrace();
-            return false;
-
-        } finally {
-            session.close();
+            return Resultado.ERROR;
         }
     }
 
     /**
-     * Canjea una recompensa descontando puntos al usuario y creando tareas
-     * automáticas para los padres o madres.
+     * Canjea una recompensa descontando puntos al usuario y creando una
+     * solicitud de canje que aprueba cualquiera de los padres o madres.
+     * <p>
+     * La transacción hace siempre las mismas escrituras: el descuento y su
+     * movimiento, la solicitud y la inserción de sus aprobadores.
+     * </p>
      *
      * @param usuario usuario que canjea la recompensa
      * @param recompensa recompensa seleccionada
      * @return {@code true} si el canje se realiza correctamente
+     * @see SolicitudCanjeDAO
      */
     public static boolean canjearRecompensa(
             Usuario usuario,
             Recompensa recompensa
     ) {
-
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            session.beginTransaction();
-
-            Usuario u = session.get(Usuario.class, usuario.getId());
-
-            if (u.getPuntos() < recompensa.getCostePuntos()) {
-                session.getTransaction().rollback();
-                return false;
-            }
-
-            u.setPuntos(u.getPuntos() - recompensa.getCostePuntos());
-            session.update(u);
-
-            List<Usuario> padres = session.createQuery(
-                    "FROM Usuario u WHERE u.rol IN ('PADRE','MADRE')",
-                    Usuario.class
-            ).getResultList();
-
-            for (Usuario padre : padres) {
-                Tarea t = new Tarea();
-                t.setNombre("Recompensa: " + recompensa.getNombre());
-                t.setDescripcion(
-                        "El usuario " + u.getUsername()
-                        + " ha canjeado la recompensa: "
-                        + recompensa.getNombre()
+        try {
+            return Transaccion.ejecutar("TareaDAO.canjearRecompensa", session -> {
+                Usuario u = MovimientoPuntosDAO.gastar(
+                        session,
+                        usuario.getId(),
+                        recompensa.getCostePuntos(),
+                        MovimientoPuntos.Tipo.RECOMPENSA,
+                        null,
+                        "Recompensa: " + recompensa.getNombre()
                 );
-                t.setAsignadoPor(u);
-                t.setResponsable(padre);
-                t.setEstado("PENDIENTE");
-                t.setFechaInicio(LocalDate.now());
-                t.setFechaLimite(LocalDate.now().plusDays(3));
-                t.setPuntosRecompensa(0);
-
-                session.persist(t);
-            }
-
-            session.getTransaction().commit();
-            return true;
+                if (u == null) {
+                    session.getTransaction().rollback();
+                    return false;
+                }
+
+                SolicitudCanjeDAO.crear(
+                        session,
+                        u,
+                        session.getReference(Recompensa.class, recompensa.getId())
+                );
+                return true;
+            });
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -269,20 +811,26 @@ public class TareaDAO {
     /**
      * Elimina una tarea de la base de datos.
      *
-     * @param tarea tarea a eliminar
+     * @param tareaId identificador de la tarea a eliminar
      * @return {@code true} si se elimina correctamente
      */
-    public static boolean eliminar(Tarea tarea) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            session.beginTransaction();
-
-            Tarea t = session.get(Tarea.class, tarea.getId());
-            if (t != null) {
-                session.remove(t);
-            }
-
-            session.getTransaction().commit();
-            return true;
+    public static boolean eliminar(Long tareaId) {
+        try {
+            return Transaccion.ejecutar("TareaDAO.eliminar", session -> {
+                Tarea t = session.get(Tarea.class, tareaId);
+                if (t != null) {
+                    registrarSalida(session, tareaId);
+                    session.remove(t);
+                }
+
+                // Con el reloj de la base de datos, que es el que rellena
+                // eliminada_en (el del equipo puede ir desfasado)
+                session.createNativeMutationQuery(
+                        "DELETE FROM tareas_eliminadas WHERE eliminada_en"
+                        + " < LOCALTIMESTAMP - INTERVAL '" + DIAS_RETENCION_ELIMINADAS + "' DAY"
+                ).executeUpdate();
+                return true;
+            });
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -293,48 +841,62 @@ public class TareaDAO {
     /**
      * Deshace la finalización de una tarea previamente marcada como finalizada.
      * <p>
-     * Restaura el estado de la tarea y revierte los puntos otorgados.
+     * Restaura el estado de la tarea y revierte los puntos que otorgó al
+     * finalizarse, según el libro de movimientos. Como en
+     * {@link #marcarFinalizada(Long, long)}, solo se deshace si la tarea
+     * sigue en la versión en que quedó al finalizarla: si otra sesión la
+     * ha modificado o eliminado después, no se cambia nada.
      * </p>
      *
-     * @param tarea tarea a restaurar
-     * @param puntos puntos que se deben revertir
-     * @return {@code true} si la operación se realiza correctamente
+     * @param tareaId identificador de la tarea a restaurar
+     * @param version versión de la tarea tras finalizarla
+     * @return {@link Resultado#OK} si se deshace;
+     * {@link Resultado#RECHAZADO} si la tarea no está finalizada;
+     * {@link Resultado#CONFLICTO} si otra sesión ha modificado o eliminado
+     * la tarea
      */
-    public static boolean deshacerFinalizacion(Long tareaId, int puntos) {
-
-        Session session = HibernateUtil.getSessionFactory().openSession();
-        Transaction tx = null;
-
+    public static Resultado deshacerFinalizacion(Long tareaId, long version) {
         try {
-            tx = session.beginTransaction();
-
-            Tarea t = session.get(Tarea.class, tareaId);
-
-            if (t == null || !"FINALIZADA".equals(t.getEstado())) {
-                tx.rollback();
-                return false;
-            }
-
-            Usuario u = t.getResponsable();
-
-            // 🔁 Revertir estado y puntos
-            t.setEstado("PENDIENTE");
-            u.setPuntos(u.getPuntos() - puntos);
-
-            session.update(u);
-            session.update(t);
-
-            tx.commit();
-            return true;
-
+            return Transaccion.ejecutar("TareaDAO.deshacerFinalizacion", session -> {
+                int restauradas = session.createMutationQuery(
+                        "UPDATE VERSIONED Tarea t SET t.estado = 'PENDIENTE'"
+                        + " WHERE t.id = :id AND t.version = :version"
+                        + " AND t.estado = 'FINALIZADA'"
+                ).setParameter("id", tareaId)
+                        .setParameter("version", version)
+                        .executeUpdate();
+
+                if (restauradas == 0) {
+                    Resultado motivo = motivoRechazo(session, tareaId, version);
+                    session.getTransaction().rollback();
+                    return motivo;
+                }
+
+                String nombre = session.createQuery(
+                        "SELECT t.nombre FROM Tarea t WHERE t.id = :id",
+                        String.class
+                ).setParameter("id", tareaId)
+                        .uniqueResult();
+
+                // Se revierten los puntos aunque el saldo quede negativo
+                for (Object[] otorgados : MovimientoPuntosDAO.puntosOtorgados(session, tareaId)) {
+                    MovimientoPuntosDAO.sumar(
+                            session,
+                            (Long) otorgados[0],
+                            -((Long) otorgados[1]).intValue(),
+                            MovimientoPuntos.Tipo.FINALIZACION_DESHECHA,
+                            tareaId,
+                            "Deshacer tarea: " + nombre
+                    );
+                }
+                return Resultado.OK;
+            });
+
+        } catch (ConflictoConcurrenciaException e) {
+            return Resultado.CONFLICTO;
         } catch (Exception e) {
-            if (tx != null) {
-                tx.rollback();
-            }
             e.printStackTrace();
-            return false;
-        } finally {
-            session.close();
+            return Resultado.ERROR;
         }
     }
 
@@ -0,0 +1,420 @@
+package com.yhon.dam.proyectodamnavidad.dao;
+
+import com.yhon.dam.proyectodamnavidad.util.HibernateUtil;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.StaleStateException;
+import org.hibernate.Transaction;
+import org.hibernate.exception.LockAcquisitionException;
+
+/**
+ * Plantilla de transacciones de la capa DAO.
+ * <p>
+ * Todos los accesos de los DAO a la base de datos pasan por aquí: se
+ * abre la sesión, se inicia la transacción, se ejecuta el trabajo y se
+ * confirma o, ante cualquier excepción, se deshace y se cierra la
+ * sesión. Cada transacción lleva un nombre con el que se acumulan sus
+ * tiempos, consultables con {@link #informe()}.
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #ejecutar(String, Function)}: transacción de escritura.
+ * Varias instancias de la aplicación comparten la misma base de datos
+ * ({@code AUTO_SERVER}), de modo que puede fallar porque otra ha
+ * modificado antes las mismas filas ({@code @Version}) o porque ha
+ * agotado la espera de un bloqueo. En esos casos se deshace y se repite
+ * completa, con una espera creciente y aleatoria entre intentos, hasta
+ * {@value #INTENTOS} veces; si sigue fallando se lanza
+ * {@link ConflictoConcurrenciaException}.</li>
+ * <li>{@link #leer(String, Function)}: transacción de solo lectura. La
+ * sesión no comprueba cambios en las entidades ni hace flush
+ * ({@code FlushMode.MANUAL}, entidades de solo lectura) y la conexión
+ * se marca como de solo lectura. No se reintenta.</li>
+ * </ul>
+ *
+ * Ambas admiten un {@link Aislamiento} distinto del de la conexión. El
+ * pool (HikariCP) restablece la conexión al devolverla, por lo que estos
+ * ajustes no pasan a la siguiente transacción.
+ *
+ * <p>
+ * El trabajo se ejecuta dentro de la transacción y debe leer de nuevo
+ * lo que necesite, para que cada intento parta de los datos actuales.
+ * Puede deshacer él mismo la transacción (por ejemplo, si no hay saldo
+ * suficiente); en ese caso no se confirma.
+ * </p>
+ *
+ * <p>
+ * Por la misma razón, el trabajo no debe hacer {@code persist} de una
+ * entidad creada fuera de él: el primer intento le asigna el id y el
+ * rollback no lo quita, de modo que el reintento fallaría con
+ * {@code EntityExistsException}. Las entidades nuevas se crean dentro
+ * del trabajo o se guardan con {@code merge}, que guarda una copia.
+ * </p>
+ *
+ * @author yhon
+ */
+public final class Transaccion {
+
+    private static final Logger logger = Logger.getLogger(Transaccion.class.getName());
+
+    /**
+     * Nivel de aislamiento de una transacción.
+     */
+    enum Aislamiento {
+        /** El de la conexión (el predeterminado de la base de datos) */
+        PREDETERMINADO(-1),
+        /** Solo se ven datos confirmados */
+        LECTURA_CONFIRMADA(Connection.TRANSACTION_READ_COMMITTED),
+        /** Todas las consultas ven la misma instantánea de los datos */
+        LECTURA_REPETIBLE(Connection.TRANSACTION_REPEATABLE_READ),
+        /** Como si las transacciones se ejecutaran una detrás de otra */
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        private final int nivelJdbc;
+
+        Aislamiento(int nivelJdbc) {
+            this.nivelJdbc = nivelJdbc;
+        }
+    }
+
+    /** Número máximo de intentos de una transacción de escritura. */
+    private static final int INTENTOS = 4;
+
+    /** Espera antes del primer reintento (ms); se duplica en cada uno. */
+    private static final long ESPERA_INICIAL_MS = 20;
+
+    /** Duración a partir de la cual se registra una transacción como lenta (ms). */
+    private static final long UMBRAL_LENTA_MS = 500;
+
+    /** H2: tiempo de espera de un bloqueo agotado (LOCK_TIMEOUT_1). */
+    private static final int H2_TIEMPO_BLOQUEO = 50200;
+
+    /** MySQL: tiempo de espera de un bloqueo agotado (ER_LOCK_WAIT_TIMEOUT). */
+    private static final int MYSQL_TIEMPO_BLOQUEO = 1205;
+
+    /** MySQL: interbloqueo (ER_LOCK_DEADLOCK). */
+    private static final int MYSQL_INTERBLOQUEO = 1213;
+
+    /** Métricas por nombre de transacción. */
+    private static final Map<String, Metricas> metricas = new ConcurrentHashMap<>();
+
+    /**
+     * Tiempos acumulados de las transacciones con un mismo nombre.
+     */
+    private static final class Metricas {
+
+        final LongAdder ejecuciones = new LongAdder();
+        final LongAdder reintentos = new LongAdder();
+        final LongAdder fallos = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private Transaccion() {
+    }
+
+    /**
+     * Ejecuta un trabajo en una transacción de escritura, reintentándolo
+     * si choca con otra.
+     *
+     * @param <T> tipo del resultado
+     * @param nombre nombre de la transacción para las métricas
+     * @param trabajo trabajo a ejecutar con la sesión de la transacción
+     * @return resultado del trabajo
+     * @throws ConflictoConcurrenciaException si se agotan los intentos
+     */
+    static <T> T ejecutar(String nombre, Function<Session, T> trabajo) {
+        return ejecutar(nombre, Aislamiento.PREDETERMINADO, trabajo);
+    }
+
+    /**
+     * Ejecuta un trabajo en una transacción de escritura con un nivel de
+     * aislamiento concreto, reintentándolo si choca con otra.
+     *
+     * @param <T> tipo del resultado
+     * @param nombre nombre de la transacción para las métricas
+     * @param aislamiento nivel de aislamiento
+     * @param trabajo trabajo a ejecutar con la sesión de la transacción
+     * @return resultado del trabajo
+     * @throws ConflictoConcurrenciaException si se agotan los intentos
+     */
+    static <T> T ejecutar(String nombre, Aislamiento aislamiento, Function<Session, T> trabajo) {
+        return ejecutar(nombre, false, aislamiento, INTENTOS, trabajo);
+    }
+
+    /**
+     * Ejecuta consultas en una transacción de solo lectura.
+     *
+     * @param <T> tipo del resultado
+     * @param nombre nombre de la transacción para las métricas
+     * @param consulta consultas a ejecutar con la sesión de la transacción
+     * @return resultado de las consultas
+     */
+    static <T> T leer(String nombre, Function<Session, T> consulta) {
+        return leer(nombre, Aislamiento.PREDETERMINADO, consulta);
+    }
+
+    /**
+     * Ejecuta consultas en una transacción de solo lectura con un nivel
+     * de aislamiento concreto; por ejemplo,
+     * {@link Aislamiento#LECTURA_REPETIBLE} para que varias consultas
+     * vean los mismos datos.
+     *
+     * @param <T> tipo del resultado
+     * @param nombre nombre de la transacción para las métricas
+     * @param aislamiento nivel de aislamiento
+     * @param consulta consultas a ejecutar con la sesión de la transacción
+     * @return resultado de las consultas
+     */
+    static <T> T leer(String nombre, Aislamiento aislamiento, Function<Session, T> consulta) {
+        return ejecutar(nombre, true, aislamiento, 1, consulta);
+    }
+
+    /**
+     * Ejecuta un trabajo en una transacción, con los reintentos indicados,
+     * y anota su duración.
+     *
+     * @param <T> tipo del resultado
+     * @param nombre nombre de la transacción para las métricas
+     * @param soloLectura {@code true} para una transacción de solo lectura
+     * @param aislamiento nivel de aislamiento
+     * @param intentos número máximo de intentos
+     * @param trabajo trabajo a ejecutar con la sesión de la transacción
+     * @return resultado del trabajo
+     */
+    private static <T> T ejecutar(
+            String nombre,
+            boolean soloLectura,
+            Aislamiento aislamiento,
+            int intentos,
+            Function<Session, T> trabajo
+    ) {
+        Metricas m = metricas.computeIfAbsent(nombre, n -> new Metricas());
+        long inicio = System.nanoTime();
+        boolean correcta = false;
+
+        try {
+            for (int intento = 1; ; intento++) {
+                try {
+                    T resultado = intentar(soloLectura, aislamiento, trabajo);
+                    correcta = true;
+                    return resultado;
+
+                } catch (RuntimeException e) {
+                    if (!esConflicto(e)) {
+                        throw e;
+                    }
+                    if (intento >= intentos) {
+                        throw new ConflictoConcurrenciaException(
+                                "Conflicto de concurrencia en " + nombre
+                                + " tras " + intento + " intento(s)", e);
+                    }
+                    m.reintentos.increment();
+                    logger.log(Level.FINE, "Conflicto de concurrencia en " + nombre
+                            + ", reintento " + intento, e);
+                    esperar(intento);
+                }
+            }
+
+        } finally {
+            long nanos = System.nanoTime() - inicio;
+            m.ejecuciones.increment();
+            m.totalNanos.add(nanos);
+            m.maximoNanos.accumulate(nanos);
+            if (!correcta) {
+                m.fallos.increment();
+            }
+
+            long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+            if (ms >= UMBRAL_LENTA_MS) {
+                logger.info("Transacción lenta: " + nombre + " (" + ms + " ms)");
+            }
+        }
+    }
+
+    /**
+     * Ejecuta un intento de la transacción en una sesión nueva.
+     *
+     * @param <T> tipo del resultado
+     * @param soloLectura {@code true} para una transacción de solo lectura
+     * @param aislamiento nivel de aislamiento
+     * @param trabajo trabajo a ejecutar
+     * @return resultado del trabajo
+     */
+    private static <T> T intentar(
+            boolean soloLectura,
+            Aislamiento aislamiento,
+            Function<Session, T> trabajo
+    ) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Transaction tx = null;
+
+            try {
+                if (soloLectura) {
+                    session.setDefaultReadOnly(true);
+                    session.setHibernateFlushMode(FlushMode.MANUAL);
+                }
+
+                // Antes de empezar: cambiar el aislamiento con la
+                // transacción abierta no está definido en JDBC (H2 la
+                // confirma)
+                if (soloLectura || aislamiento != Aislamiento.PREDETERMINADO) {
+                    session.doWork(con -> {
+                        if (aislamiento != Aislamiento.PREDETERMINADO) {
+                            con.setTransactionIsolation(aislamiento.nivelJdbc);
+                        }
+                        if (soloLectura) {
+                            con.setReadOnly(true);
+                        }
+                    });
+                }
+                tx = session.beginTransaction();
+
+                T resultado = trabajo.apply(session);
+                if (tx.isActive()) {
+                    tx.commit();
+                }
+                return resultado;
+
+            } catch (RuntimeException e) {
+                deshacer(tx);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Programa una acción para cuando la transacción se confirme; si se
+     * deshace, no se ejecuta. Sirve para actualizar cachés en memoria,
+     * como el directorio de usuarios, solo con datos ya confirmados.
+     *
+     * @param session sesión con la transacción activa
+     * @param accion acción a ejecutar tras la confirmación
+     */
+    static void alConfirmar(Session session, Runnable accion) {
+        session.getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int estado) {
+                if (estado == Status.STATUS_COMMITTED) {
+                    accion.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Devuelve un informe con los tiempos de cada transacción, de la que
+     * más tiempo total ha consumido a la que menos.
+     *
+     * @return informe de las transacciones ejecutadas
+     */
+    public static String informe() {
+        List<Map.Entry<String, Metricas>> filas = new ArrayList<>(metricas.entrySet());
+        filas.sort((a, b) -> Long.compare(b.getValue().totalNanos.sum(), a.getValue().totalNanos.sum()));
+
+        StringBuilder sb = new StringBuilder("Transacciones\n");
+        sb.append(String.format("  %-40s %8s %10s %10s %10s %7s%n",
+                "nombre", "n", "media ms", "máx. ms", "reintentos", "fallos"));
+
+        for (Map.Entry<String, Metricas> fila : filas) {
+            Metricas m = fila.getValue();
+            long n = m.ejecuciones.sum();
+            sb.append(String.format("  %-40s %8d %10.1f %10.1f %10d %7d%n",
+                    fila.getKey(),
+                    n,
+                    n == 0 ? 0.0 : m.totalNanos.sum() / 1e6 / n,
+                    m.maximoNanos.get() / 1e6,
+                    m.reintentos.sum(),
+                    m.fallos.sum()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Deshace la transacción si sigue activa, sin ocultar la excepción
+     * original si también falla el rollback.
+     *
+     * @param tx transacción, o {@code null} si no llegó a empezar
+     */
+    private static void deshacer(Transaction tx) {
+        if (tx == null || !tx.isActive()) {
+            return;
+        }
+        try {
+            tx.rollback();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "No se puede deshacer la transacción", e);
+        }
+    }
+
+    /**
+     * Indica si una excepción se debe a un choque con otra transacción
+     * y, por tanto, tiene sentido reintentar.
+     *
+     * @param e excepción lanzada por la transacción
+     * @return {@code true} si es un conflicto de concurrencia
+     */
+    private static boolean esConflicto(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException
+                    || t instanceof StaleStateException
+                    || t instanceof PessimisticLockException
+                    || t instanceof LockTimeoutException
+                    || t instanceof org.hibernate.PessimisticLockException
+                    || t instanceof LockAcquisitionException) {
+                return true;
+            }
+            if (t instanceof SQLException sql) {
+                int codigo = sql.getErrorCode();
+                if (codigo == H2_TIEMPO_BLOQUEO
+                        || codigo == MYSQL_TIEMPO_BLOQUEO
+                        || codigo == MYSQL_INTERBLOQUEO) {
+                    return true;
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Espera antes de un reintento: el doble en cada intento, con un
+     * componente aleatorio para que las transacciones que han chocado no
+     * vuelvan a coincidir.
+     *
+     * @param intento intento que acaba de fallar (desde 1)
+     */
+    private static void esperar(int intento) {
+        long base = ESPERA_INICIAL_MS << (intento - 1);
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException("Reintento interrumpido", e);
+        }
+    }
+}
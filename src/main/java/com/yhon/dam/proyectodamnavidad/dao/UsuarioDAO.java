@@ -4,11 +4,10 @@
  */
 package com.yhon.dam.proyectodamnavidad.dao;
 
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente;
 import com.yhon.dam.proyectodamnavidad.modelo.Rol;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
-import com.yhon.dam.proyectodamnavidad.util.HibernateUtil;
 import java.util.List;
-import org.hibernate.Session;
 
 /**
  * DAO (Data Access Object) encargado de la gestión de usuarios.
@@ -18,7 +17,9 @@ import org.hibernate.Session;
  * controladores de la aplicación.
  * </p>
  *
- * Utiliza Hibernate para el acceso a la base de datos.
+ * Utiliza Hibernate para el acceso a la base de datos. Los listados y
+ * búsquedas por id o rol se resuelven en memoria con
+ * {@link DirectorioUsuarios}, que este DAO mantiene actualizado.
  *
  * @author yhon
  */
@@ -30,13 +31,33 @@ public class UsuarioDAO {
      * @return lista de usuarios con rol PADRE
      */
     public static List<Usuario> listarPadres() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                    "FROM Usuario u WHERE u.rol = :rol",
-                    Usuario.class
-            ).setParameter("rol", Rol.PADRE)
-             .list();
-        }
+        return DirectorioUsuarios.porRol(Rol.PADRE);
+    }
+
+    /**
+     * Obtiene la lista de usuarios con alguno de los roles indicados.
+     * <p>
+     * Se resuelve en memoria mediante el directorio de usuarios.
+     * </p>
+     *
+     * @param roles roles buscados
+     * @return lista de usuarios con esos roles
+     */
+    public static List<Usuario> listarPorRol(Rol... roles) {
+        return DirectorioUsuarios.porRol(roles);
+    }
+
+    /**
+     * Busca un usuario por su identificador.
+     * <p>
+     * Se resuelve en memoria mediante el directorio de usuarios.
+     * </p>
+     *
+     * @param id identificador del usuario
+     * @return usuario encontrado o {@code null} si no existe
+     */
+    public static Usuario buscarPorId(Long id) {
+        return DirectorioUsuarios.porId(id);
     }
 
     /**
@@ -46,27 +67,32 @@ public class UsuarioDAO {
      * @return usuario encontrado o {@code null} si no existe
      */
     public static Usuario buscarPorUsername(String username) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return Transaccion.leer("UsuarioDAO.buscarPorUsername", session -> {
             return session.createQuery(
                     "FROM Usuario WHERE username = :u",
                     Usuario.class
             ).setParameter("u", username)
              .uniqueResult();
-        }
+        });
     }
 
     /**
      * Guarda un nuevo usuario en la base de datos.
+     * <p>
+     * Se guarda una copia ({@code merge}) y no el objeto recibido, para
+     * que un reintento de la transacción no lo encuentre ya con id.
+     * </p>
      *
      * @param u usuario a persistir
      * @return {@code true} si se guarda correctamente, {@code false} en caso de error
      */
     public static boolean guardar(Usuario u) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            session.beginTransaction();
-            session.persist(u);
-            session.getTransaction().commit();
-            return true;
+        try {
+            return Transaccion.ejecutar("UsuarioDAO.guardar", session -> {
+                Usuario guardado = session.merge(u);
+                Transaccion.alConfirmar(session, () -> DirectorioUsuarios.actualizar(guardado));
+                return true;
+            });
         } catch (Exception e) {
             e.printStackTrace(); // útil en entorno de desarrollo
             return false;
@@ -76,11 +102,21 @@ public class UsuarioDAO {
     /**
      * Comprueba si existe un usuario con el email indicado.
      *
+     * <p>
+     * Si el email está en el directorio de usuarios se responde sin
+     * consultar la base de datos; si no, se comprueba en la base de datos
+     * por si lo ha registrado otra instancia de la aplicación.
+     * </p>
+     *
      * @param email correo electrónico a comprobar
      * @return {@code true} si el email ya existe, {@code false} en caso contrario
      */
     public static boolean existeEmail(String email) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        if (DirectorioUsuarios.porEmail(email) != null) {
+            return true;
+        }
+
+        return Transaccion.leer("UsuarioDAO.existeEmail", session -> {
             Long count = session.createQuery(
                     "SELECT COUNT(u) FROM Usuario u WHERE u.email = :e",
                     Long.class
@@ -88,21 +124,20 @@ public class UsuarioDAO {
              .uniqueResult();
 
             return count != null && count > 0;
-        }
+        });
     }
 
     /**
      * Obtiene la lista completa de usuarios del sistema.
+     * <p>
+     * Se sirve desde el directorio de usuarios en memoria; la tabla solo
+     * se consulta cuando la copia en memoria ha caducado.
+     * </p>
      *
-     * @return lista de usuarios
+     * @return lista de usuarios (copias que se pueden modificar)
      */
     public static List<Usuario> listarUsuarios() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                    "FROM Usuario",
-                    Usuario.class
-            ).getResultList();
-        }
+        return DirectorioUsuarios.todos();
     }
 
     /**
@@ -112,30 +147,62 @@ public class UsuarioDAO {
      * @return usuario encontrado o {@code null} si no existe
      */
     public static Usuario buscarPorEmail(String email) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        return Transaccion.leer("UsuarioDAO.buscarPorEmail", session -> {
             return session.createQuery(
                     "FROM Usuario u WHERE u.email = :e",
                     Usuario.class
             ).setParameter("e", email)
              .uniqueResult();
-        }
+        });
     }
 
     /**
      * Actualiza la contraseña de un usuario.
      * <p>
-     * La contraseña debe recibirse previamente en formato hash.
+     * La contraseña debe recibirse previamente en formato hash. Se
+     * modifica el usuario leído de nuevo en la transacción, no la copia
+     * recibida, para no sobrescribir con datos antiguos los puntos que
+     * otra sesión haya cambiado entretanto.
      * </p>
      *
      * @param u usuario al que se le actualiza la contraseña
      * @param hash nuevo hash de la contraseña
+     * @throws ConflictoConcurrenciaException si el usuario se sigue
+     * modificando a la vez tras varios intentos
      */
     public static void actualizarPassword(Usuario u, String hash) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            session.beginTransaction();
-            u.setPasswordHash(hash);
-            session.update(u);
-            session.getTransaction().commit();
-        }
+        actualizarPassword(u, hash, null, null, null);
+    }
+
+    /**
+     * Actualiza la contraseña de un usuario y guarda en la bandeja de
+     * salida el correo que lo notifica.
+     * <p>
+     * El correo se guarda en la misma transacción que la contraseña: si
+     * el cambio no se confirma, el correo tampoco se envía. El envío lo
+     * hace después {@code EnvioCorreos}, en segundo plano. El
+     * {@link CorreoSaliente} se crea en cada intento de la transacción,
+     * para que un reintento no guarde una entidad que ya tiene id.
+     * </p>
+     *
+     * @param u usuario al que se le actualiza la contraseña
+     * @param hash nuevo hash de la contraseña
+     * @param destino dirección del correo, o {@code null} para no enviarlo
+     * @param asunto asunto del correo
+     * @param cuerpo texto del correo
+     * @throws ConflictoConcurrenciaException si el usuario se sigue
+     * modificando a la vez tras varios intentos
+     */
+    public static void actualizarPassword(Usuario u, String hash, String destino, String asunto, String cuerpo) {
+        Transaccion.ejecutar("UsuarioDAO.actualizarPassword", session -> {
+            Usuario actual = session.get(Usuario.class, u.getId());
+            actual.setPasswordHash(hash);
+            if (destino != null) {
+                session.persist(new CorreoSaliente(destino, asunto, cuerpo));
+            }
+            Transaccion.alConfirmar(session, () -> DirectorioUsuarios.actualizar(actual));
+            return null;
+        });
+        u.setPasswordHash(hash);
     }
 }
@@ -0,0 +1,88 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Tarea pendiente que aparece en el resumen diario de su responsable.
+ * <p>
+ * Contiene solo lo necesario para redactar el resumen: el responsable
+ * con su email y el nombre y la fecha límite de la tarea. Se obtiene con
+ * una proyección HQL ({@code SELECT new ...}) sin cargar las entidades
+ * {@link Tarea} ni {@link Usuario}.
+ * </p>
+ *
+ * No es una entidad: no está gestionada por Hibernate.
+ *
+ * @author yhon
+ */
+public class AvisoTarea {
+
+    private final Long responsableId;
+    private final String responsable;
+    private final String email;
+    private final String nombre;
+    private final LocalDate fechaLimite;
+
+    /**
+     * Crea el aviso de una tarea.
+     *
+     * @param responsableId identificador del responsable
+     * @param responsable nombre de usuario del responsable
+     * @param email email del responsable
+     * @param nombre nombre de la tarea
+     * @param fechaLimite fecha límite de la tarea
+     */
+    public AvisoTarea(Long responsableId, String responsable, String email,
+            String nombre, LocalDate fechaLimite) {
+        this.responsableId = responsableId;
+        this.responsable = responsable;
+        this.email = email;
+        this.nombre = nombre;
+        this.fechaLimite = fechaLimite;
+    }
+
+    /**
+     * Devuelve el identificador del responsable.
+     *
+     * @return id del responsable
+     */
+    public Long getResponsableId() {
+        return responsableId;
+    }
+
+    /**
+     * Devuelve el nombre de usuario del responsable.
+     *
+     * @return nombre de usuario
+     */
+    public String getResponsable() {
+        return responsable;
+    }
+
+    /**
+     * Devuelve el email del responsable.
+     *
+     * @return email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Devuelve el nombre de la tarea.
+     *
+     * @return nombre de la tarea
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Devuelve la fecha límite de la tarea.
+     *
+     * @return fecha límite
+     */
+    public LocalDate getFechaLimite() {
+        return fechaLimite;
+    }
+}
@@ -0,0 +1,115 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cambios en la lista de tareas de un responsable desde un momento dado.
+ * <p>
+ * Lo obtiene {@code TareaDAO.cambiosDesde} y lo aplica el modelo de la
+ * tabla de tareas como inserciones, actualizaciones y borrados de filas
+ * sueltas, sin recargar el listado.
+ * </p>
+ *
+ * <ul>
+ * <li><b>Modificadas</b>: tareas del responsable que han cambiado. Las
+ * que además están en {@link #getNuevas()} han entrado en la lista
+ * (creadas o delegadas a él); el resto ya estaban.</li>
+ * <li><b>Salidas</b>: posición (fecha límite e id) de las tareas que han
+ * dejado la lista (eliminadas o delegadas a otro usuario).</li>
+ * <li><b>Anteriores</b>: para cada tarea nueva o salida, número de
+ * tareas de la lista actual que la preceden en el orden del listado.</li>
+ * </ul>
+ *
+ * @author yhon
+ */
+public class CambiosTareas {
+
+    private final LocalDateTime hasta;
+    private final List<TareaResumen> modificadas;
+    private final Set<Long> nuevas;
+    private final List<CursorTarea> salidas;
+    private final Map<Long, Integer> anteriores;
+
+    /**
+     * Crea el conjunto de cambios.
+     *
+     * @param hasta momento (según la base de datos) hasta el que se han
+     * leído los cambios; es el punto de partida del siguiente refresco
+     * @param modificadas tareas modificadas, en el orden del listado
+     * @param nuevas ids de las modificadas que han entrado en la lista
+     * @param salidas posición de las tareas que han salido de la lista
+     * @param anteriores id de tarea → tareas que la preceden en la lista actual
+     */
+    public CambiosTareas(
+            LocalDateTime hasta,
+            List<TareaResumen> modificadas,
+            Set<Long> nuevas,
+            List<CursorTarea> salidas,
+            Map<Long, Integer> anteriores
+    ) {
+        this.hasta = hasta;
+        this.modificadas = modificadas;
+        this.nuevas = nuevas;
+        this.salidas = salidas;
+        this.anteriores = anteriores;
+    }
+
+    /**
+     * Devuelve el momento hasta el que se han leído los cambios.
+     *
+     * @return punto de partida del siguiente refresco
+     */
+    public LocalDateTime getHasta() {
+        return hasta;
+    }
+
+    /**
+     * Devuelve las tareas modificadas.
+     *
+     * @return tareas modificadas, en el orden del listado
+     */
+    public List<TareaResumen> getModificadas() {
+        return modificadas;
+    }
+
+    /**
+     * Devuelve los ids de las tareas que han entrado en la lista.
+     *
+     * @return ids de las tareas nuevas
+     */
+    public Set<Long> getNuevas() {
+        return nuevas;
+    }
+
+    /**
+     * Devuelve la posición de las tareas que han salido de la lista.
+     *
+     * @return fecha límite e id de cada tarea salida
+     */
+    public List<CursorTarea> getSalidas() {
+        return salidas;
+    }
+
+    /**
+     * Devuelve cuántas tareas de la lista actual preceden a una tarea
+     * nueva o salida.
+     *
+     * @param tareaId id de la tarea
+     * @return número de tareas anteriores en el orden del listado
+     */
+    public int getAnteriores(Long tareaId) {
+        return anteriores.get(tareaId);
+    }
+
+    /**
+     * Indica si no hay ningún cambio.
+     *
+     * @return {@code true} si no hay cambios
+     */
+    public boolean isVacio() {
+        return modificadas.isEmpty() && salidas.isEmpty();
+    }
+}
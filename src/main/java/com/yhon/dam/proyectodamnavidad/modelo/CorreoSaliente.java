@@ -0,0 +1,216 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * Mensaje de la bandeja de salida del correo.
+ * <p>
+ * Las operaciones que envían correo no lo hacen directamente: guardan el
+ * mensaje en la misma transacción que el cambio que lo origina, de modo
+ * que ambos se confirman o se descartan juntos, y un proceso en segundo
+ * plano lo envía después con reintentos.
+ * </p>
+ *
+ * Está mapeada a la tabla {@code email_outbox} mediante JPA. Los índices
+ * declarados aquí se crean con las migraciones de {@code db/migracion}.
+ *
+ * @author yhon
+ */
+@Entity
+@Table(
+        name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_estado_intento", columnList = "estado, siguiente_intento")
+)
+public class CorreoSaliente {
+
+    /**
+     * Estado de un mensaje.
+     */
+    public enum Estado {
+        /** Pendiente de envío (o de un nuevo intento) */
+        PENDIENTE,
+        /** Enviado correctamente */
+        ENVIADO,
+        /** Descartado tras agotar los intentos o por un error permanente */
+        DESCARTADO
+    }
+
+    /**
+     * Identificador único del mensaje.
+     */
+    @Id
+    @GeneratedValue(generator = "email_outbox")
+    @GenericGenerator(name = "email_outbox", type = GeneradorIdBloques.class,
+            parameters = @Parameter(name = GeneradorIdBloques.SEGMENT_VALUE_PARAM, value = "email_outbox"))
+    private Long id;
+
+    /**
+     * Dirección del destinatario.
+     */
+    @Column(nullable = false)
+    private String destino;
+
+    /**
+     * Asunto del mensaje.
+     */
+    @Column(nullable = false)
+    private String asunto;
+
+    /**
+     * Texto del mensaje; se borra cuando el mensaje deja de estar
+     * pendiente.
+     */
+    @Column(length = 4000)
+    private String cuerpo;
+
+    /**
+     * Estado del mensaje.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Estado estado;
+
+    /**
+     * Intentos de envío fallidos.
+     */
+    @Column(nullable = false)
+    private int intentos;
+
+    /**
+     * Momento a partir del cual se puede intentar el envío.
+     */
+    @Column(name = "siguiente_intento", nullable = false)
+    private LocalDateTime siguienteIntento;
+
+    /**
+     * Error del último intento fallido.
+     */
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    /**
+     * Momento en que se guardó el mensaje; lo asigna la base de datos.
+     */
+    @Column(name = "creado_en", insertable = false, updatable = false)
+    private LocalDateTime creadoEn;
+
+    /**
+     * Momento del envío.
+     */
+    @Column(name = "enviado_en")
+    private LocalDateTime enviadoEn;
+
+    /**
+     * Constructor vacío obligatorio para Hibernate.
+     */
+    protected CorreoSaliente() {
+    }
+
+    /**
+     * Crea un mensaje pendiente de envío inmediato.
+     *
+     * @param destino dirección del destinatario
+     * @param asunto asunto del mensaje
+     * @param cuerpo texto del mensaje
+     */
+    public CorreoSaliente(String destino, String asunto, String cuerpo) {
+        this.destino = destino;
+        this.asunto = asunto;
+        this.cuerpo = cuerpo;
+        this.estado = Estado.PENDIENTE;
+        this.siguienteIntento = LocalDateTime.now();
+    }
+
+    /**
+     * Devuelve el identificador del mensaje.
+     *
+     * @return id del mensaje
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Devuelve la dirección del destinatario.
+     *
+     * @return destino
+     */
+    public String getDestino() {
+        return destino;
+    }
+
+    /**
+     * Devuelve el asunto del mensaje.
+     *
+     * @return asunto
+     */
+    public String getAsunto() {
+        return asunto;
+    }
+
+    /**
+     * Devuelve el texto del mensaje.
+     *
+     * @return cuerpo, o {@code null} si ya no está pendiente
+     */
+    public String getCuerpo() {
+        return cuerpo;
+    }
+
+    /**
+     * Devuelve el estado del mensaje.
+     *
+     * @return estado
+     */
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Devuelve el número de intentos fallidos.
+     *
+     * @return intentos
+     */
+    public int getIntentos() {
+        return intentos;
+    }
+
+    /**
+     * Devuelve el momento del siguiente intento.
+     *
+     * @return fecha y hora
+     */
+    public LocalDateTime getSiguienteIntento() {
+        return siguienteIntento;
+    }
+
+    /**
+     * Devuelve el error del último intento fallido.
+     *
+     * @return mensaje de error, o {@code null}
+     */
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    /**
+     * Devuelve el momento en que se guardó el mensaje.
+     *
+     * @return fecha y hora
+     */
+    public LocalDateTime getCreadoEn() {
+        return creadoEn;
+    }
+
+    /**
+     * Devuelve el momento del envío.
+     *
+     * @return fecha y hora, o {@code null} si no se ha enviado
+     */
+    public LocalDateTime getEnviadoEn() {
+        return enviadoEn;
+    }
+}
@@ -0,0 +1,101 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Posición dentro de un listado paginado de tareas.
+ * <p>
+ * Los listados se ordenan por fecha límite y, a igualdad de fecha, por
+ * id; las tareas sin fecha límite van al final. El cursor guarda esos
+ * dos valores de la primera o la última fila de una página, de modo
+ * que la página siguiente o la anterior se piden con un
+ * {@code WHERE (fecha_limite, id) > (...)} que aprovecha el índice, sin
+ * {@code OFFSET}.
+ * </p>
+ *
+ * El orden natural de los cursores es el del listado.
+ *
+ * @author yhon
+ */
+public final class CursorTarea implements Comparable<CursorTarea> {
+
+    private final LocalDate fechaLimite;
+    private final Long id;
+
+    /**
+     * Crea un cursor.
+     *
+     * @param fechaLimite fecha límite de la fila (puede ser {@code null})
+     * @param id identificador de la fila
+     */
+    public CursorTarea(LocalDate fechaLimite, Long id) {
+        this.fechaLimite = fechaLimite;
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Crea un cursor situado en una fila de un listado.
+     *
+     * @param tarea fila del listado
+     * @return cursor de la fila
+     */
+    public static CursorTarea de(TareaResumen tarea) {
+        return new CursorTarea(tarea.getFechaLimite(), tarea.getId());
+    }
+
+    /**
+     * Devuelve la fecha límite de la fila.
+     *
+     * @return fecha límite o {@code null} si la tarea no tiene
+     */
+    public LocalDate getFechaLimite() {
+        return fechaLimite;
+    }
+
+    /**
+     * Devuelve el identificador de la fila.
+     *
+     * @return id de la tarea
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Compara dos posiciones según el orden del listado: fecha límite
+     * ascendente (sin fecha al final) e id.
+     *
+     * @param otro cursor con el que se compara
+     * @return negativo, cero o positivo si este cursor va antes, en la
+     * misma posición o después que {@code otro}
+     */
+    @Override
+    public int compareTo(CursorTarea otro) {
+        int porFecha = Comparator.nullsLast(Comparator.<LocalDate>naturalOrder())
+                .compare(fechaLimite, otro.fechaLimite);
+        return porFecha != 0 ? porFecha : id.compareTo(otro.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CursorTarea otro)) {
+            return false;
+        }
+        return Objects.equals(fechaLimite, otro.fechaLimite) && id.equals(otro.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fechaLimite, id);
+    }
+
+    @Override
+    public String toString() {
+        return "CursorTarea[" + fechaLimite + ", " + id + "]";
+    }
+}
@@ -0,0 +1,187 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * Movimiento del libro de puntos.
+ * <p>
+ * Cada suma o gasto de puntos de un usuario queda registrado como un
+ * movimiento, en la misma transacción que actualiza
+ * {@link Usuario#getPuntos()}, que es el saldo materializado: la suma de
+ * los movimientos del usuario. El libro solo crece; una operación se
+ * revierte con un movimiento de signo contrario.
+ * </p>
+ *
+ * Está mapeada a la tabla {@code movimientos_puntos} mediante JPA. Los
+ * índices declarados aquí se crean con las migraciones de
+ * {@code db/migracion}.
+ *
+ * @author yhon
+ */
+@Entity
+@Immutable
+@Table(
+        name = "movimientos_puntos",
+        indexes = {
+            @Index(name = "idx_movimientos_usuario_fecha", columnList = "usuario, fecha, puntos"),
+            @Index(name = "idx_movimientos_tarea", columnList = "tarea")
+        }
+)
+public class MovimientoPuntos {
+
+    /**
+     * Motivo de un movimiento.
+     */
+    public enum Tipo {
+        /** Saldo que tenía el usuario al crear el libro */
+        APERTURA,
+        /** Puntos de una tarea finalizada */
+        TAREA_FINALIZADA,
+        /** Devolución de los puntos de una tarea al deshacer su finalización */
+        FINALIZACION_DESHECHA,
+        /** Pago por delegar una tarea ("Que lo haga otro") */
+        DELEGACION,
+        /** Canje de una recompensa */
+        RECOMPENSA
+    }
+
+    /**
+     * Identificador único del movimiento.
+     */
+    @Id
+    @GeneratedValue(generator = "movimientos_puntos")
+    @GenericGenerator(name = "movimientos_puntos", type = GeneradorIdBloques.class,
+            parameters = @Parameter(name = GeneradorIdBloques.SEGMENT_VALUE_PARAM, value = "movimientos_puntos"))
+    private Long id;
+
+    /**
+     * Usuario cuyo saldo cambia.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "usuario", nullable = false)
+    private Usuario usuario;
+
+    /**
+     * Puntos del movimiento: positivos si se suman, negativos si se gastan.
+     */
+    @Column(nullable = false)
+    private int puntos;
+
+    /**
+     * Motivo del movimiento.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Tipo tipo;
+
+    /**
+     * Tarea relacionada, si la hay.
+     * <p>
+     * Se guarda solo el identificador: la tarea puede eliminarse y el
+     * movimiento debe conservarse.
+     * </p>
+     */
+    @Column(name = "tarea")
+    private Long tareaId;
+
+    /**
+     * Descripción legible del movimiento.
+     */
+    private String concepto;
+
+    /**
+     * Momento del movimiento; lo asigna la base de datos.
+     */
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime fecha;
+
+    /**
+     * Constructor vacío obligatorio para Hibernate.
+     */
+    protected MovimientoPuntos() {
+    }
+
+    /**
+     * Crea un movimiento.
+     *
+     * @param usuario usuario cuyo saldo cambia
+     * @param puntos puntos (negativos si se gastan)
+     * @param tipo motivo del movimiento
+     * @param tareaId tarea relacionada, o {@code null}
+     * @param concepto descripción del movimiento
+     */
+    public MovimientoPuntos(Usuario usuario, int puntos, Tipo tipo, Long tareaId, String concepto) {
+        this.usuario = usuario;
+        this.puntos = puntos;
+        this.tipo = tipo;
+        this.tareaId = tareaId;
+        this.concepto = concepto;
+    }
+
+    /**
+     * Devuelve el identificador del movimiento.
+     *
+     * @return id del movimiento
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Devuelve el usuario del movimiento.
+     *
+     * @return usuario cuyo saldo cambia
+     */
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    /**
+     * Devuelve los puntos del movimiento.
+     *
+     * @return puntos, negativos si se gastan
+     */
+    public int getPuntos() {
+        return puntos;
+    }
+
+    /**
+     * Devuelve el motivo del movimiento.
+     *
+     * @return tipo del movimiento
+     */
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Devuelve la tarea relacionada.
+     *
+     * @return identificador de la tarea, o {@code null}
+     */
+    public Long getTareaId() {
+        return tareaId;
+    }
+
+    /**
+     * Devuelve la descripción del movimiento.
+     *
+     * @return concepto
+     */
+    public String getConcepto() {
+        return concepto;
+    }
+
+    /**
+     * Devuelve el momento del movimiento.
+     *
+     * @return fecha y hora
+     */
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+}
@@ -3,9 +3,13 @@ package com.yhon.dam.proyectodamnavidad.modelo;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Parameter;
 
 /**
  * Entidad que representa una recompensa del sistema.
@@ -16,17 +20,31 @@ import jakarta.persistence.Table;
  *
  * Está mapeada a la tabla {@code recompensas} mediante JPA.
  *
+ * El catálogo casi nunca cambia, por lo que se guarda en la caché de
+ * segundo nivel (región {@code recompensas}) en modo solo lectura.
+ * Las recompensas existentes no se modifican: el catálogo se amplía
+ * añadiendo nuevas recompensas mediante {@code RecompensaDAO}.
+ *
  * @author yhon
  */
 @Entity
 @Table(name = "recompensas")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = Recompensa.REGION_CACHE)
 public class Recompensa {
 
+    /**
+     * Región de la caché de segundo nivel para las recompensas.
+     */
+    public static final String REGION_CACHE = "recompensas";
+
     /**
      * Identificador único de la recompensa.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "recompensas")
+    @GenericGenerator(name = "recompensas", type = GeneradorIdBloques.class,
+            parameters = @Parameter(name = GeneradorIdBloques.SEGMENT_VALUE_PARAM, value = "recompensas"))
     private Long id;
 
     /**
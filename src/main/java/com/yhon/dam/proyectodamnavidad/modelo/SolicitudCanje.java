@@ -0,0 +1,224 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * Solicitud de canje de una recompensa.
+ * <p>
+ * Al canjear una recompensa se descuentan los puntos y se crea una única
+ * solicitud, compartida por todos sus aprobadores (los padres y madres
+ * en el momento del canje). Cualquiera de ellos puede aprobarla; al
+ * hacerlo deja de estar pendiente para los demás.
+ * </p>
+ *
+ * Está mapeada a la tabla {@code solicitudes_canje} mediante JPA; los
+ * aprobadores están en {@code solicitudes_canje_aprobadores}. Los índices
+ * declarados aquí se crean con las migraciones de {@code db/migracion}.
+ *
+ * @author yhon
+ */
+@Entity
+@Table(name = "solicitudes_canje")
+public class SolicitudCanje {
+
+    /**
+     * Estado de una solicitud.
+     */
+    public enum Estado {
+        /** Pendiente de aprobación */
+        PENDIENTE,
+        /** Aprobada por uno de los aprobadores */
+        APROBADA
+    }
+
+    /**
+     * Identificador único de la solicitud.
+     */
+    @Id
+    @GeneratedValue(generator = "solicitudes_canje")
+    @GenericGenerator(name = "solicitudes_canje", type = GeneradorIdBloques.class,
+            parameters = @Parameter(name = GeneradorIdBloques.SEGMENT_VALUE_PARAM, value = "solicitudes_canje"))
+    private Long id;
+
+    /**
+     * Usuario que canjea la recompensa.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "solicitante", nullable = false)
+    private Usuario solicitante;
+
+    /**
+     * Recompensa canjeada.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "recompensa", nullable = false)
+    private Recompensa recompensa;
+
+    /**
+     * Puntos descontados al solicitante.
+     */
+    @Column(nullable = false)
+    private int puntos;
+
+    /**
+     * Estado de la solicitud.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Estado estado;
+
+    /**
+     * Momento del canje; lo asigna la base de datos.
+     */
+    @Column(name = "creada_en", insertable = false, updatable = false)
+    private LocalDateTime creadaEn;
+
+    /**
+     * Usuario que aprobó la solicitud, si ya está aprobada.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "aprobada_por")
+    private Usuario aprobadaPor;
+
+    /**
+     * Momento de la aprobación.
+     */
+    @Column(name = "aprobada_en")
+    private LocalDateTime aprobadaEn;
+
+    /**
+     * Versión de la fila para el bloqueo optimista.
+     */
+    @Version
+    private long version;
+
+    /**
+     * Usuarios que pueden aprobar la solicitud.
+     * <p>
+     * Se rellena con una única sentencia al crear la solicitud (ver
+     * {@code SolicitudCanjeDAO}); la colección solo se usa en consultas.
+     * </p>
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "solicitudes_canje_aprobadores",
+            joinColumns = @JoinColumn(name = "solicitud"),
+            inverseJoinColumns = @JoinColumn(name = "aprobador"),
+            indexes = @Index(name = "idx_aprobadores_aprobador", columnList = "aprobador, solicitud")
+    )
+    private Set<Usuario> aprobadores = new HashSet<>();
+
+    /**
+     * Constructor vacío obligatorio para Hibernate.
+     */
+    protected SolicitudCanje() {
+    }
+
+    /**
+     * Crea una solicitud pendiente.
+     *
+     * @param solicitante usuario que canjea la recompensa
+     * @param recompensa recompensa canjeada
+     */
+    public SolicitudCanje(Usuario solicitante, Recompensa recompensa) {
+        this.solicitante = solicitante;
+        this.recompensa = recompensa;
+        this.puntos = recompensa.getCostePuntos();
+        this.estado = Estado.PENDIENTE;
+    }
+
+    /**
+     * Devuelve el identificador de la solicitud.
+     *
+     * @return id de la solicitud
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Devuelve el usuario que canjea la recompensa.
+     *
+     * @return solicitante
+     */
+    public Usuario getSolicitante() {
+        return solicitante;
+    }
+
+    /**
+     * Devuelve la recompensa canjeada.
+     *
+     * @return recompensa
+     */
+    public Recompensa getRecompensa() {
+        return recompensa;
+    }
+
+    /**
+     * Devuelve los puntos descontados.
+     *
+     * @return puntos del canje
+     */
+    public int getPuntos() {
+        return puntos;
+    }
+
+    /**
+     * Devuelve el estado de la solicitud.
+     *
+     * @return estado
+     */
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Devuelve el momento del canje.
+     *
+     * @return fecha y hora de creación
+     */
+    public LocalDateTime getCreadaEn() {
+        return creadaEn;
+    }
+
+    /**
+     * Devuelve el usuario que aprobó la solicitud.
+     *
+     * @return aprobador, o {@code null} si está pendiente
+     */
+    public Usuario getAprobadaPor() {
+        return aprobadaPor;
+    }
+
+    /**
+     * Devuelve el momento de la aprobación.
+     *
+     * @return fecha y hora, o {@code null} si está pendiente
+     */
+    public LocalDateTime getAprobadaEn() {
+        return aprobadaEn;
+    }
+
+    /**
+     * Devuelve la versión de la fila.
+     *
+     * @return versión
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Devuelve los usuarios que pueden aprobar la solicitud.
+     *
+     * @return aprobadores
+     */
+    public Set<Usuario> getAprobadores() {
+        return aprobadores;
+    }
+}
@@ -6,6 +6,9 @@ package com.yhon.dam.proyectodamnavidad.modelo;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 /**
  * Entidad que representa una tarea del sistema.
@@ -15,12 +18,25 @@ import java.time.LocalDate;
  * indica su progreso dentro del sistema.
  * </p>
  *
- * Está mapeada a la tabla {@code tareas} mediante JPA.
+ * Está mapeada a la tabla {@code tareas} mediante JPA. Los índices
+ * cubren las búsquedas por responsable, estado y fecha límite.
  *
  * @author yhon
  */
 @Entity
-@Table(name = "tareas")
+@Table(
+        name = "tareas",
+        indexes = {
+            @Index(name = "idx_tareas_responsable_estado_fecha",
+                    columnList = "responsable, estado, fecha_limite, id"),
+            @Index(name = "idx_tareas_responsable_fecha",
+                    columnList = "responsable, fecha_limite, id"),
+            @Index(name = "idx_tareas_estado_fecha_limite", columnList = "estado, fecha_limite"),
+            @Index(name = "idx_tareas_fecha_limite", columnList = "fecha_limite"),
+            @Index(name = "idx_tareas_responsable_actualizado",
+                    columnList = "responsable, actualizado_en")
+        }
+)
 public class Tarea {
 
     /**
@@ -45,7 +61,9 @@ public class Tarea {
      * Identificador único de la tarea.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "tareas")
+    @GenericGenerator(name = "tareas", type = GeneradorIdBloques.class,
+            parameters = @Parameter(name = GeneradorIdBloques.SEGMENT_VALUE_PARAM, value = "tareas"))
     private Long id;
 
     /**
@@ -56,21 +74,32 @@ public class Tarea {
 
     /**
      * Descripción detallada de la tarea.
+     * <p>
+     * Puede ser muy larga, por lo que se carga de forma perezosa (requiere
+     * la mejora de bytecode de Hibernate configurada en el {@code pom.xml}).
+     * Los listados muestran solo un extracto y la descripción completa se
+     * pide con {@code TareaDAO.obtenerDescripcion}.
+     * </p>
      */
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
     private String descripcion;
 
     /**
      * Usuario que asigna la tarea.
+     * <p>
+     * Se carga de forma perezosa; los listados usan {@code JOIN FETCH}
+     * o la proyección {@link TareaResumen}.
+     * </p>
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "asignado_por", nullable = false)
     private Usuario asignadoPor;
 
     /**
      * Usuario responsable de realizar la tarea.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "responsable", nullable = false)
     private Usuario responsable;
 
@@ -98,6 +127,37 @@ public class Tarea {
     @Column(nullable = false)
     private int puntosRecompensa;
 
+    /**
+     * Momento de la última modificación de la fila.
+     * <p>
+     * Lo mantiene la base de datos ({@code ON UPDATE}); se usa para el
+     * refresco incremental de los listados.
+     * </p>
+     */
+    @Column(name = "actualizado_en", insertable = false, updatable = false)
+    private LocalDateTime actualizadoEn;
+
+    /**
+     * Momento en que la tarea entró en la lista de su responsable actual
+     * (al crearse o al delegarse).
+     * <p>
+     * Lo asigna la base de datos al insertar y {@code TareaDAO} al delegar.
+     * </p>
+     */
+    @Column(name = "asignada_en", insertable = false, updatable = false)
+    private LocalDateTime asignadaEn;
+
+    /**
+     * Versión de la fila para el bloqueo optimista.
+     * <p>
+     * Hibernate la incrementa en cada modificación; las sentencias de
+     * {@code TareaDAO} que cambian el estado o el responsable también la
+     * incrementan ({@code UPDATE VERSIONED}).
+     * </p>
+     */
+    @Version
+    private long version;
+
     /**
      * Constructor vacío obligatorio para Hibernate.
      * <p>
@@ -287,4 +347,31 @@ public class Tarea {
     public void setEstado(String estado) {
         this.estado = estado;
     }
+
+    /**
+     * Devuelve el momento de la última modificación de la tarea.
+     *
+     * @return fecha y hora de la última modificación
+     */
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+
+    /**
+     * Devuelve el momento en que la tarea se asignó a su responsable actual.
+     *
+     * @return fecha y hora de la asignación
+     */
+    public LocalDateTime getAsignadaEn() {
+        return asignadaEn;
+    }
+
+    /**
+     * Devuelve la versión de la fila.
+     *
+     * @return versión para el bloqueo optimista
+     */
+    public long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,218 @@
+package com.yhon.dam.proyectodamnavidad.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen de una tarea para los listados.
+ * <p>
+ * Contiene solo las columnas que muestra la tabla de tareas, con los
+ * nombres de usuario ya resueltos. De la descripción solo se incluye
+ * un extracto; la descripción completa se carga bajo demanda. Se obtiene con una proyección HQL
+ * ({@code SELECT new ...}) en una única consulta, sin cargar las
+ * entidades {@link Tarea} ni {@link Usuario} asociadas.
+ * </p>
+ *
+ * No es una entidad: no está gestionada por Hibernate y los cambios
+ * sobre ella no se guardan en la base de datos.
+ *
+ * @author yhon
+ */
+public class TareaResumen {
+
+    private final Long id;
+    private final String nombre;
+    private final String extractoDescripcion;
+    private String descripcion;
+    private final String asignadoPor;
+    private final Long responsableId;
+    private final String responsable;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaLimite;
+    private String estado;
+    private final int puntosRecompensa;
+    private final long version;
+
+    /**
+     * Crea un resumen de tarea.
+     * <p>
+     * El orden de los parámetros debe coincidir con el de la consulta
+     * de {@code TareaDAO}.
+     * </p>
+     *
+     * @param id identificador de la tarea
+     * @param nombre nombre de la tarea
+     * @param extractoDescripcion primeros caracteres de la descripción
+     * @param asignadoPor nombre del usuario que asignó la tarea
+     * @param responsableId identificador del responsable
+     * @param responsable nombre del usuario responsable
+     * @param fechaInicio fecha de inicio
+     * @param fechaLimite fecha límite
+     * @param estado estado de la tarea
+     * @param puntosRecompensa puntos que otorga la tarea
+     * @param version versión de la fila al leerla
+     */
+    public TareaResumen(
+            Long id,
+            String nombre,
+            String extractoDescripcion,
+            String asignadoPor,
+            Long responsableId,
+            String responsable,
+            LocalDate fechaInicio,
+            LocalDate fechaLimite,
+            String estado,
+            int puntosRecompensa,
+            long version
+    ) {
+        this.id = id;
+        this.nombre = nombre;
+        this.extractoDescripcion = extractoDescripcion;
+        this.asignadoPor = asignadoPor;
+        this.responsableId = responsableId;
+        this.responsable = responsable;
+        this.fechaInicio = fechaInicio;
+        this.fechaLimite = fechaLimite;
+        this.estado = estado;
+        this.puntosRecompensa = puntosRecompensa;
+        this.version = version;
+    }
+
+    /**
+     * Devuelve el identificador de la tarea.
+     *
+     * @return identificador de la tarea
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Devuelve el nombre de la tarea.
+     *
+     * @return nombre de la tarea
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Devuelve el extracto de la descripción que se muestra en la tabla.
+     *
+     * @return primeros caracteres de la descripción
+     */
+    public String getExtractoDescripcion() {
+        return extractoDescripcion;
+    }
+
+    /**
+     * Devuelve la descripción completa si ya se ha cargado.
+     *
+     * @return descripción completa o {@code null} si aún no se ha cargado
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Guarda la descripción completa cargada bajo demanda.
+     *
+     * @param descripcion descripción completa de la tarea
+     */
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Devuelve el nombre del usuario que asignó la tarea.
+     *
+     * @return nombre del usuario que asignó la tarea
+     */
+    public String getAsignadoPor() {
+        return asignadoPor;
+    }
+
+    /**
+     * Devuelve el identificador del responsable.
+     *
+     * @return identificador del usuario responsable
+     */
+    public Long getResponsableId() {
+        return responsableId;
+    }
+
+    /**
+     * Devuelve el nombre del responsable.
+     *
+     * @return nombre del usuario responsable
+     */
+    public String getResponsable() {
+        return responsable;
+    }
+
+    /**
+     * Devuelve la fecha de inicio.
+     *
+     * @return fecha de inicio
+     */
+    public LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+
+    /**
+     * Devuelve la fecha límite.
+     *
+     * @return fecha límite
+     */
+    public LocalDate getFechaLimite() {
+        return fechaLimite;
+    }
+
+    /**
+     * Devuelve el estado de la tarea.
+     *
+     * @return estado de la tarea
+     */
+    public String getEstado() {
+        return estado;
+    }
+
+    /**
+     * Actualiza el estado mostrado tras una operación ya confirmada en
+     * la base de datos.
+     *
+     * @param estado nuevo estado
+     */
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    /**
+     * Devuelve los puntos que otorga la tarea.
+     *
+     * @return puntos que otorga la tarea
+     */
+    public int getPuntosRecompensa() {
+        return puntosRecompensa;
+    }
+
+    /**
+     * Devuelve la versión de la tarea cuando se leyó el resumen. Las
+     * operaciones que la modifican la comprueban para no sobrescribir
+     * un cambio posterior de otra sesión.
+     *
+     * @return versión de la fila
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Devuelve el nombre de la tarea.
+     *
+     * @return nombre de la tarea
+     */
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
@@ -5,6 +5,8 @@
 package com.yhon.dam.proyectodamnavidad.modelo;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 /**
  * Entidad que representa un usuario del sistema.
@@ -14,19 +16,25 @@ import jakarta.persistence.*;
  * a la realización de tareas.
  * </p>
  *
- * Está mapeada a la tabla {@code usuarios} mediante JPA.
+ * Está mapeada a la tabla {@code usuarios} mediante JPA. Los índices
+ * declarados aquí se crean con las migraciones de {@code db/migracion}.
  *
  * @author yhon
  */
 @Entity
-@Table(name = "usuarios")
+@Table(
+        name = "usuarios",
+        indexes = @Index(name = "idx_usuarios_email", columnList = "email")
+)
 public class Usuario {
 
     /**
      * Identificador único del usuario.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "usuarios")
+    @GenericGenerator(name = "usuarios", type = GeneradorIdBloques.class,
+            parameters = @Parameter(name = GeneradorIdBloques.SEGMENT_VALUE_PARAM, value = "usuarios"))
     private Long id;
 
     /**
@@ -65,6 +73,12 @@ public class Usuario {
     @Column(nullable = false)
     private int puntos;
 
+    /**
+     * Versión de la fila para el bloqueo optimista.
+     */
+    @Version
+    private long version;
+
     /**
      * Devuelve el identificador del usuario.
      *
@@ -164,6 +178,36 @@ public class Usuario {
         this.puntos = puntos;
     }
 
+    /**
+     * Devuelve la versión de la fila.
+     *
+     * @return versión para el bloqueo optimista
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Crea una copia del usuario con los mismos datos, id y versión.
+     * <p>
+     * La copia no está gestionada por ninguna sesión: modificarla no
+     * afecta al original.
+     * </p>
+     *
+     * @return copia del usuario
+     */
+    public Usuario copia() {
+        Usuario c = new Usuario();
+        c.id = id;
+        c.username = username;
+        c.passwordHash = passwordHash;
+        c.email = email;
+        c.rol = rol;
+        c.puntos = puntos;
+        c.version = version;
+        return c;
+    }
+
     /**
      * Representación textual del usuario.
      * <p>
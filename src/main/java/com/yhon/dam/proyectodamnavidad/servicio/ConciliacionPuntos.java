@@ -0,0 +1,78 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import com.yhon.dam.proyectodamnavidad.dao.MovimientoPuntosDAO;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Conciliación periódica de los saldos de puntos con el libro de
+ * movimientos.
+ * <p>
+ * Cada {@value #INTERVALO_HORAS} horas (y poco después de arrancar)
+ * ejecuta {@link MovimientoPuntosDAO#conciliar()} en un hilo propio. En
+ * funcionamiento normal no encuentra descuadres: solo los produce un
+ * cambio de {@code usuarios.puntos} hecho fuera de la aplicación.
+ * </p>
+ *
+ * @author yhon
+ */
+public final class ConciliacionPuntos {
+
+    private static final Logger logger = Logger.getLogger(ConciliacionPuntos.class.getName());
+
+    /** Espera desde el arranque hasta la primera conciliación (minutos). */
+    private static final long RETRASO_INICIAL_MIN = 2;
+
+    /** Intervalo entre conciliaciones (horas). */
+    private static final long INTERVALO_HORAS = 6;
+
+    /** Hilo de la conciliación (daemon para no impedir el cierre de la JVM). */
+    private static final ScheduledExecutorService EJECUTOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "conciliacion-puntos");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static boolean iniciada;
+
+    private ConciliacionPuntos() {
+    }
+
+    /**
+     * Programa la conciliación periódica si aún no lo está.
+     */
+    public static synchronized void iniciar() {
+        if (iniciada) {
+            return;
+        }
+        iniciada = true;
+
+        EJECUTOR.scheduleWithFixedDelay(
+                ConciliacionPuntos::conciliar,
+                TimeUnit.MINUTES.toMillis(RETRASO_INICIAL_MIN),
+                TimeUnit.HOURS.toMillis(INTERVALO_HORAS),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Ejecuta una conciliación. Los errores se registran sin cancelar las
+     * siguientes.
+     */
+    private static void conciliar() {
+        try {
+            int corregidos = MovimientoPuntosDAO.conciliar();
+            if (corregidos > 0) {
+                logger.warning("Conciliación de puntos: " + corregidos + " saldo(s) corregido(s)");
+            } else {
+                logger.fine("Conciliación de puntos: sin descuadres");
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Error en la conciliación de puntos", e);
+        }
+    }
+}
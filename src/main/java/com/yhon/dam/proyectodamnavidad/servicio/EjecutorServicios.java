@@ -0,0 +1,78 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor compartido por los servicios asíncronos.
+ * <p>
+ * Las vistas no deben llamar a los DAO, a BCrypt ni al correo desde el
+ * hilo de eventos de Swing: una consulta lenta, una espera de bloqueo o
+ * un envío SMTP congelarían la ventana. Los servicios de este paquete
+ * lanzan esas llamadas aquí y devuelven un {@link CompletableFuture}.
+ * </p>
+ *
+ * <p>
+ * Java 17 no dispone de hilos virtuales, así que se usa un pool acotado
+ * de {@value #HILOS} hilos daemon. Las llamadas que llegan con todos los
+ * hilos ocupados esperan en cola; no tiene sentido usar más hilos que
+ * conexiones tiene el pool de Hibernate (4 en H2). Los hashes BCrypt se
+ * calculan en el pool propio de {@link
+ * com.yhon.dam.proyectodamnavidad.util.PasswordUtil}.
+ * </p>
+ *
+ * @author yhon
+ */
+public final class EjecutorServicios {
+
+    /** Número de hilos del pool */
+    private static final int HILOS = 4;
+
+    /** Contador para numerar los hilos */
+    private static final AtomicInteger NUMERO_HILO = new AtomicInteger();
+
+    /** Pool de hilos daemon (no impide el cierre de la JVM) */
+    private static final ExecutorService EJECUTOR = new ThreadPoolExecutor(
+            HILOS, HILOS,
+            60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+                Thread t = new Thread(r, "servicio-" + NUMERO_HILO.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+    );
+
+    static {
+        ((ThreadPoolExecutor) EJECUTOR).allowCoreThreadTimeOut(true);
+    }
+
+    private EjecutorServicios() {
+    }
+
+    /**
+     * Ejecuta una operación en segundo plano.
+     *
+     * @param <T> tipo del resultado
+     * @param operacion operación a ejecutar
+     * @return futuro con el resultado o con la excepción lanzada
+     */
+    public static <T> CompletableFuture<T> ejecutar(Supplier<T> operacion) {
+        return CompletableFuture.supplyAsync(operacion, EJECUTOR);
+    }
+
+    /**
+     * Ejecuta en segundo plano una operación sin resultado.
+     *
+     * @param operacion operación a ejecutar
+     * @return futuro que se completa al terminar la operación
+     */
+    public static CompletableFuture<Void> ejecutar(Runnable operacion) {
+        return CompletableFuture.runAsync(operacion, EJECUTOR);
+    }
+}
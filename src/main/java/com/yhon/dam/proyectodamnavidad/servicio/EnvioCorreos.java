@@ -0,0 +1,175 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import com.yhon.dam.proyectodamnavidad.dao.CorreoDAO;
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente;
+import com.yhon.dam.proyectodamnavidad.util.EmailUtil;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Envío en segundo plano de la bandeja de salida del correo.
+ * <p>
+ * Cada {@value #INTERVALO_S} segundos, y en cuanto se llama a
+ * {@link #despertar()}, reserva los mensajes pendientes con
+ * {@link CorreoDAO} y los envía con {@link EmailUtil} en un hilo propio.
+ * Cada lote viaja por la misma conexión SMTP, y cada mensaje se marca
+ * como enviado en cuanto sale. Si no se puede hablar con el servidor
+ * (conexión, autenticación o corte), el lote se detiene: los mensajes
+ * que quedan conservan su reserva y se intentan en una revisión
+ * posterior, sin esperar el tiempo máximo de conexión uno por uno.
+ * Un envío fallido se reintenta con espera exponencial (de
+ * {@value #RETRASO_BASE_S} s hasta {@value #RETRASO_MAX_S} s, con una
+ * variación aleatoria para no reintentar todos a la vez); tras
+ * {@value #MAX_INTENTOS} intentos, o si la dirección no es válida, el
+ * mensaje se descarta y queda registrado con su último error.
+ * </p>
+ *
+ * @author yhon
+ */
+public final class EnvioCorreos {
+
+    private static final Logger logger = Logger.getLogger(EnvioCorreos.class.getName());
+
+    /** Espera desde el arranque hasta la primera revisión (segundos). */
+    private static final long RETRASO_INICIAL_S = 5;
+
+    /** Intervalo entre revisiones de la bandeja (segundos). */
+    private static final long INTERVALO_S = 30;
+
+    /** Mensajes que se reservan y se envían juntos. */
+    private static final int LOTE = 50;
+
+    /** Tiempo durante el que un mensaje reservado no se vuelve a intentar. */
+    private static final Duration RESERVA = Duration.ofMinutes(5);
+
+    /** Intentos antes de descartar un mensaje. */
+    private static final int MAX_INTENTOS = 8;
+
+    /** Espera tras el primer fallo (segundos); se duplica en cada intento. */
+    private static final long RETRASO_BASE_S = 30;
+
+    /** Espera máxima entre intentos (segundos). */
+    private static final long RETRASO_MAX_S = 3600;
+
+    /** Hilo del envío (daemon para no impedir el cierre de la JVM). */
+    private static final ScheduledExecutorService EJECUTOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "envio-correos");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static boolean iniciado;
+
+    private EnvioCorreos() {
+    }
+
+    /**
+     * Programa la revisión periódica de la bandeja si aún no lo está.
+     */
+    public static synchronized void iniciar() {
+        if (iniciado) {
+            return;
+        }
+        iniciado = true;
+
+        EJECUTOR.scheduleWithFixedDelay(
+                EnvioCorreos::revisar,
+                RETRASO_INICIAL_S,
+                INTERVALO_S,
+                TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Pide una revisión inmediata de la bandeja, sin esperar a la
+     * siguiente periódica. Se llama después de confirmar una transacción
+     * que ha guardado un correo.
+     */
+    public static void despertar() {
+        EJECUTOR.execute(EnvioCorreos::revisar);
+    }
+
+    /**
+     * Ejecuta una revisión. Los errores se registran sin cancelar las
+     * siguientes.
+     */
+    private static void revisar() {
+        try {
+            procesar();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Error revisando la bandeja de salida del correo", e);
+        } finally {
+            EmailUtil.cerrarSiInactiva();
+        }
+    }
+
+    /**
+     * Envía los mensajes pendientes cuyo intento ya ha llegado.
+     * <p>
+     * Normalmente lo llama el hilo del envío; es público para poder
+     * vaciar la bandeja de forma síncrona (por ejemplo, contra un
+     * servidor SMTP local de pruebas).
+     * </p>
+     *
+     * @return número de mensajes enviados
+     */
+    public static synchronized int procesar() {
+        int enviados = 0;
+        List<CorreoSaliente> reservados;
+
+        do {
+            reservados = CorreoDAO.reservarPendientes(LOTE, RESERVA);
+
+            for (CorreoSaliente c : reservados) {
+                try {
+                    EmailUtil.enviar(c.getDestino(), c.getAsunto(), c.getCuerpo());
+                } catch (MessagingException e) {
+                    registrarFallo(c, e);
+                    if (!(e instanceof SendFailedException || e instanceof AddressException)) {
+                        // El servidor no responde: los demás fallarían igual
+                        return enviados;
+                    }
+                    continue;
+                }
+                CorreoDAO.marcarEnviado(c.getId());
+                enviados++;
+            }
+        } while (reservados.size() == LOTE);
+
+        return enviados;
+    }
+
+    /**
+     * Reprograma o descarta un mensaje cuyo envío ha fallado.
+     *
+     * @param c mensaje
+     * @param e error del envío
+     */
+    private static void registrarFallo(CorreoSaliente c, MessagingException e) {
+        int intentos = c.getIntentos() + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+
+        if (e instanceof AddressException || intentos >= MAX_INTENTOS) {
+            CorreoDAO.descartar(c.getId(), error);
+            logger.warning("Correo " + c.getId() + " a " + c.getDestino()
+                    + " descartado tras " + intentos + " intento(s): " + error);
+            return;
+        }
+
+        long espera = Math.min(RETRASO_BASE_S << (intentos - 1), RETRASO_MAX_S);
+        espera += ThreadLocalRandom.current().nextLong(espera / 5 + 1);
+        CorreoDAO.reprogramar(c.getId(), error, Duration.ofSeconds(espera));
+        logger.info("Correo " + c.getId() + ": intento " + intentos + " fallido, siguiente en "
+                + espera + " s (" + error + ")");
+    }
+}
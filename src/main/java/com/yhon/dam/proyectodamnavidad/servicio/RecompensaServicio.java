@@ -0,0 +1,53 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import com.yhon.dam.proyectodamnavidad.dao.RecompensaDAO;
+import com.yhon.dam.proyectodamnavidad.dao.SolicitudCanjeDAO;
+import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
+import com.yhon.dam.proyectodamnavidad.modelo.SolicitudCanje;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asíncrona de las operaciones de {@link RecompensaDAO} y
+ * {@link SolicitudCanjeDAO} que usan las vistas.
+ *
+ * @author yhon
+ */
+public final class RecompensaServicio {
+
+    private RecompensaServicio() {
+    }
+
+    /**
+     * Obtiene el catálogo de recompensas.
+     *
+     * @return futuro con la lista de recompensas
+     * @see RecompensaDAO#listar()
+     */
+    public static CompletableFuture<List<Recompensa>> listar() {
+        return EjecutorServicios.ejecutar(RecompensaDAO::listar);
+    }
+
+    /**
+     * Obtiene las solicitudes de canje pendientes de un aprobador.
+     *
+     * @param aprobadorId identificador del aprobador
+     * @return futuro con las solicitudes pendientes
+     * @see SolicitudCanjeDAO#listarPendientes(Long)
+     */
+    public static CompletableFuture<List<SolicitudCanje>> listarSolicitudesPendientes(Long aprobadorId) {
+        return EjecutorServicios.ejecutar(() -> SolicitudCanjeDAO.listarPendientes(aprobadorId));
+    }
+
+    /**
+     * Aprueba una solicitud de canje.
+     *
+     * @param solicitudId identificador de la solicitud
+     * @param aprobadorId identificador del aprobador
+     * @return futuro con {@code true} si se ha aprobado
+     * @see SolicitudCanjeDAO#aprobar(Long, Long)
+     */
+    public static CompletableFuture<Boolean> aprobarSolicitud(Long solicitudId, Long aprobadorId) {
+        return EjecutorServicios.ejecutar(() -> SolicitudCanjeDAO.aprobar(solicitudId, aprobadorId));
+    }
+}
@@ -0,0 +1,174 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import com.yhon.dam.proyectodamnavidad.dao.ResumenDiarioDAO;
+import com.yhon.dam.proyectodamnavidad.modelo.AvisoTarea;
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente;
+import com.yhon.dam.proyectodamnavidad.util.I18n;
+import com.yhon.dam.proyectodamnavidad.util.Plantilla;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resumen diario por correo de las tareas pendientes.
+ * <p>
+ * Cada {@value #INTERVALO_MIN} minutos comprueba si ya se ha generado el
+ * resumen del día; a partir de las {@value #HORA_ENVIO}:00, si no lo
+ * está, lee con una sola consulta las tareas pendientes vencidas o que
+ * vencen en los próximos {@value #DIAS_AVISO} días, las agrupa por
+ * responsable y guarda un correo para cada uno en la bandeja de salida,
+ * que envía {@link EnvioCorreos} por lotes. Los correos se redactan con
+ * la plantilla {@code resumen} ({@link Plantilla}) en el idioma activo
+ * de la aplicación al generar el resumen.
+ * </p>
+ *
+ * @author yhon
+ */
+public final class ResumenDiario {
+
+    private static final Logger logger = Logger.getLogger(ResumenDiario.class.getName());
+
+    /** Espera desde el arranque hasta la primera comprobación (minutos). */
+    private static final long RETRASO_INICIAL_MIN = 1;
+
+    /** Intervalo entre comprobaciones (minutos). */
+    private static final long INTERVALO_MIN = 30;
+
+    /** Hora a partir de la cual se genera el resumen del día. */
+    private static final int HORA_ENVIO = 8;
+
+    /** Días por delante que cubre el resumen, además de las tareas vencidas. */
+    private static final int DIAS_AVISO = 2;
+
+    /** Tareas que se detallan en cada correo; del resto solo se da el número. */
+    private static final int MAX_TAREAS = 10;
+
+    /** Hilo del resumen (daemon para no impedir el cierre de la JVM). */
+    private static final ScheduledExecutorService EJECUTOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "resumen-diario");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static boolean iniciado;
+
+    private ResumenDiario() {
+    }
+
+    /**
+     * Programa la comprobación periódica si aún no lo está.
+     */
+    public static synchronized void iniciar() {
+        if (iniciado) {
+            return;
+        }
+        iniciado = true;
+
+        EJECUTOR.scheduleWithFixedDelay(
+                ResumenDiario::comprobar,
+                RETRASO_INICIAL_MIN,
+                INTERVALO_MIN,
+                TimeUnit.MINUTES
+        );
+    }
+
+    /**
+     * Genera el resumen del día si ya es la hora y no está generado. Los
+     * errores se registran sin cancelar las siguientes comprobaciones.
+     */
+    private static void comprobar() {
+        try {
+            LocalDate hoy = LocalDate.now();
+            if (LocalTime.now().getHour() < HORA_ENVIO || ResumenDiarioDAO.generado(hoy)) {
+                return;
+            }
+
+            int mensajes = generar(hoy);
+            if (mensajes >= 0) {
+                logger.info("Resumen diario del " + hoy + ": " + mensajes + " correo(s)");
+                EnvioCorreos.despertar();
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Error generando el resumen diario", e);
+        }
+    }
+
+    /**
+     * Genera el resumen de un día y guarda sus correos en la bandeja de
+     * salida.
+     * <p>
+     * Normalmente lo llama el hilo del resumen; es público para poder
+     * generarlo de forma síncrona.
+     * </p>
+     *
+     * @param fecha día del resumen
+     * @return número de correos guardados, o -1 si el resumen de ese día
+     * ya estaba generado
+     */
+    public static int generar(LocalDate fecha) {
+        Locale idioma = I18n.getLocale();
+        Plantilla plantilla = Plantilla.de("resumen", idioma);
+        String asunto = I18n.t(idioma, "digest.subject");
+        DateTimeFormatter formato = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(idioma);
+        List<AvisoTarea> avisos = ResumenDiarioDAO.listarPendientes(fecha.plusDays(DIAS_AVISO));
+        List<CorreoSaliente> mensajes = new ArrayList<>();
+
+        // Las tareas llegan ordenadas por responsable
+        int inicio = 0;
+        for (int i = 1; i <= avisos.size(); i++) {
+            if (i == avisos.size()
+                    || !avisos.get(i).getResponsableId().equals(avisos.get(inicio).getResponsableId())) {
+                mensajes.add(redactar(plantilla, asunto, formato, avisos.subList(inicio, i), fecha));
+                inicio = i;
+            }
+        }
+
+        return ResumenDiarioDAO.guardar(fecha, mensajes) ? mensajes.size() : -1;
+    }
+
+    /**
+     * Redacta el correo de un responsable.
+     *
+     * @param plantilla plantilla del cuerpo
+     * @param asunto asunto del correo
+     * @param formato formato de las fechas
+     * @param tareas tareas del responsable, por fecha límite
+     * @param fecha día del resumen
+     * @return correo pendiente de envío
+     */
+    private static CorreoSaliente redactar(Plantilla plantilla, String asunto, DateTimeFormatter formato,
+            List<AvisoTarea> tareas, LocalDate fecha) {
+        List<Map<String, Object>> vencidas = new ArrayList<>();
+        List<Map<String, Object>> proximas = new ArrayList<>();
+        int detalladas = Math.min(tareas.size(), MAX_TAREAS);
+
+        for (AvisoTarea t : tareas.subList(0, detalladas)) {
+            (t.getFechaLimite().isBefore(fecha) ? vencidas : proximas).add(Map.of(
+                    "nombre", t.getNombre(),
+                    "fecha", formato.format(t.getFechaLimite())
+            ));
+        }
+
+        AvisoTarea primera = tareas.get(0);
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("usuario", primera.getResponsable());
+        valores.put("dias", DIAS_AVISO);
+        valores.put("vencidas", vencidas.isEmpty() ? null : Map.of("tareas", vencidas));
+        valores.put("proximas", proximas.isEmpty() ? null : Map.of("tareas", proximas));
+        valores.put("mas", tareas.size() > detalladas ? tareas.size() - detalladas : null);
+
+        return new CorreoSaliente(primera.getEmail(), asunto, plantilla.renderizar(valores));
+    }
+}
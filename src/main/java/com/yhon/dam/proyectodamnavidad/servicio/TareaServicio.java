@@ -0,0 +1,115 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import com.yhon.dam.proyectodamnavidad.dao.TareaDAO;
+import com.yhon.dam.proyectodamnavidad.dao.TareaDAO.Resultado;
+import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
+import com.yhon.dam.proyectodamnavidad.modelo.Tarea;
+import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asíncrona de las operaciones de {@link TareaDAO} que usan las
+ * vistas.
+ * <p>
+ * Cada método lanza la operación en {@link EjecutorServicios} y devuelve
+ * enseguida; el resultado se recoge en el hilo de eventos de Swing con
+ * {@code IndicadorOcupado} (paquete {@code vista}).
+ * </p>
+ *
+ * @author yhon
+ */
+public final class TareaServicio {
+
+    private TareaServicio() {
+    }
+
+    /**
+     * Guarda una nueva tarea.
+     *
+     * @param tarea tarea a guardar
+     * @return futuro con {@code true} si se guarda correctamente
+     * @see TareaDAO#guardar(Tarea)
+     */
+    public static CompletableFuture<Boolean> guardar(Tarea tarea) {
+        return EjecutorServicios.ejecutar(() -> TareaDAO.guardar(tarea));
+    }
+
+    /**
+     * Carga la descripción completa de una tarea.
+     *
+     * @param tareaId identificador de la tarea
+     * @return futuro con la descripción
+     * @see TareaDAO#obtenerDescripcion(Long)
+     */
+    public static CompletableFuture<String> obtenerDescripcion(Long tareaId) {
+        return EjecutorServicios.ejecutar(() -> TareaDAO.obtenerDescripcion(tareaId));
+    }
+
+    /**
+     * Marca una tarea como finalizada y suma los puntos al responsable.
+     *
+     * @param tareaId identificador de la tarea
+     * @param version versión de la tarea al leerla
+     * @return futuro con el resultado de la operación
+     * @see TareaDAO#marcarFinalizada(Long, long)
+     */
+    public static CompletableFuture<Resultado> marcarFinalizada(Long tareaId, long version) {
+        return EjecutorServicios.ejecutar(() -> TareaDAO.marcarFinalizada(tareaId, version));
+    }
+
+    /**
+     * Delega una tarea en otro usuario a cambio de puntos.
+     *
+     * @param usuario usuario que delega la tarea
+     * @param tareaId identificador de la tarea
+     * @param version versión de la tarea al leerla
+     * @param nuevoResponsable usuario que pasa a ser responsable
+     * @return futuro con el resultado de la operación
+     * @see TareaDAO#canjearQueLoHagaOtro(Usuario, Long, long, Usuario)
+     */
+    public static CompletableFuture<Resultado> canjearQueLoHagaOtro(
+            Usuario usuario,
+            Long tareaId,
+            long version,
+            Usuario nuevoResponsable
+    ) {
+        return EjecutorServicios.ejecutar(
+                () -> TareaDAO.canjearQueLoHagaOtro(usuario, tareaId, version, nuevoResponsable)
+        );
+    }
+
+    /**
+     * Canjea una recompensa.
+     *
+     * @param usuario usuario que canjea la recompensa
+     * @param recompensa recompensa seleccionada
+     * @return futuro con {@code true} si el canje se realiza
+     * @see TareaDAO#canjearRecompensa(Usuario, Recompensa)
+     */
+    public static CompletableFuture<Boolean> canjearRecompensa(Usuario usuario, Recompensa recompensa) {
+        return EjecutorServicios.ejecutar(() -> TareaDAO.canjearRecompensa(usuario, recompensa));
+    }
+
+    /**
+     * Elimina una tarea.
+     *
+     * @param tareaId identificador de la tarea
+     * @return futuro con {@code true} si se elimina
+     * @see TareaDAO#eliminar(Long)
+     */
+    public static CompletableFuture<Boolean> eliminar(Long tareaId) {
+        return EjecutorServicios.ejecutar(() -> TareaDAO.eliminar(tareaId));
+    }
+
+    /**
+     * Deshace la finalización de una tarea y resta los puntos otorgados.
+     *
+     * @param tareaId identificador de la tarea
+     * @param version versión de la tarea tras finalizarla
+     * @return futuro con el resultado de la operación
+     * @see TareaDAO#deshacerFinalizacion(Long, long)
+     */
+    public static CompletableFuture<Resultado> deshacerFinalizacion(Long tareaId, long version) {
+        return EjecutorServicios.ejecutar(() -> TareaDAO.deshacerFinalizacion(tareaId, version));
+    }
+}
@@ -0,0 +1,127 @@
+package com.yhon.dam.proyectodamnavidad.servicio;
+
+import com.yhon.dam.proyectodamnavidad.controller.LoginControlador;
+import com.yhon.dam.proyectodamnavidad.controller.LoginControlador.LoginResult;
+import com.yhon.dam.proyectodamnavidad.controller.RecuperarControlador;
+import com.yhon.dam.proyectodamnavidad.controller.RegistroControlador;
+import com.yhon.dam.proyectodamnavidad.controller.RegistroControlador.RegistroResult;
+import com.yhon.dam.proyectodamnavidad.dao.UsuarioDAO;
+import com.yhon.dam.proyectodamnavidad.modelo.Rol;
+import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.yhon.dam.proyectodamnavidad.util.PasswordUtil;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asíncrona de las operaciones sobre usuarios que usan las
+ * vistas: consultas de {@link UsuarioDAO} y los procesos de login,
+ * registro, recuperación y cambio de contraseña, que además calculan
+ * hashes BCrypt o envían correo.
+ *
+ * @author yhon
+ */
+public final class UsuarioServicio {
+
+    private UsuarioServicio() {
+    }
+
+    /**
+     * Busca un usuario por su nombre de usuario.
+     *
+     * @param username nombre de usuario
+     * @return futuro con el usuario o {@code null} si no existe
+     * @see UsuarioDAO#buscarPorUsername(String)
+     */
+    public static CompletableFuture<Usuario> buscarPorUsername(String username) {
+        return EjecutorServicios.ejecutar(() -> UsuarioDAO.buscarPorUsername(username));
+    }
+
+    /**
+     * Obtiene todos los usuarios.
+     *
+     * @return futuro con la lista de usuarios
+     * @see UsuarioDAO#listarUsuarios()
+     */
+    public static CompletableFuture<List<Usuario>> listarUsuarios() {
+        return EjecutorServicios.ejecutar(UsuarioDAO::listarUsuarios);
+    }
+
+    /**
+     * Valida unas credenciales.
+     * <p>
+     * Si el login es correcto, el usuario queda disponible en
+     * {@link LoginControlador#getUsuarioLogueado()}.
+     * </p>
+     *
+     * @param controlador controlador que hace la validación
+     * @param username nombre de usuario introducido
+     * @param password contraseña introducida
+     * @return futuro con el resultado del login
+     */
+    public static CompletableFuture<LoginResult> login(
+            LoginControlador controlador,
+            String username,
+            String password
+    ) {
+        return EjecutorServicios.ejecutar(() -> controlador.login(username, password));
+    }
+
+    /**
+     * Registra un nuevo usuario.
+     *
+     * @param username nombre de usuario
+     * @param password contraseña en texto plano
+     * @param email correo electrónico
+     * @param rol rol del usuario
+     * @return futuro con el resultado del registro
+     * @see RegistroControlador#registrar(String, String, String, Rol)
+     */
+    public static CompletableFuture<RegistroResult> registrar(
+            String username,
+            String password,
+            String email,
+            Rol rol
+    ) {
+        return EjecutorServicios.ejecutar(
+                () -> new RegistroControlador().registrar(username, password, email, rol)
+        );
+    }
+
+    /**
+     * Genera una nueva contraseña y la envía por correo.
+     *
+     * @param email correo del usuario
+     * @return futuro con el resultado de la recuperación
+     * @see RecuperarControlador#recuperar(String)
+     */
+    public static CompletableFuture<RecuperarControlador.Resultado> recuperar(String email) {
+        return EjecutorServicios.ejecutar(() -> new RecuperarControlador().recuperar(email));
+    }
+
+    /**
+     * Cambia la contraseña de un usuario tras comprobar la actual.
+     *
+     * @param usuario usuario autenticado
+     * @param actual contraseña actual en texto plano
+     * @param nueva nueva contraseña en texto plano
+     * @return futuro con el hash de la nueva contraseña, o {@code null}
+     * si la contraseña actual no es correcta
+     */
+    public static CompletableFuture<String> cambiarPassword(Usuario usuario, String actual, String nueva) {
+        String hashActual = usuario.getPasswordHash();
+
+        // BCrypt en el pool de hashes; solo la escritura ocupa un hilo de servicio
+        return PasswordUtil.checkPasswordAsync(actual, hashActual).thenCompose(correcta -> {
+            if (!correcta) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return PasswordUtil.hashPasswordAsync(nueva).thenCompose(hash ->
+                    EjecutorServicios.ejecutar(() -> {
+                        UsuarioDAO.actualizarPassword(usuario, hash);
+                        return hash;
+                    })
+            );
+        });
+    }
+}
@@ -0,0 +1,245 @@
+package com.yhon.dam.proyectodamnavidad.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Detector de la base de datos disponible al arrancar la aplicación.
+ * <p>
+ * Comprueba en segundo plano si MySQL responde, con tiempos de espera
+ * estrictos tanto a nivel de socket como de driver JDBC, para que el
+ * arranque nunca quede bloqueado por una base de datos caída.
+ * </p>
+ *
+ * <p>
+ * El último resultado se guarda en un fichero de estado local
+ * ({@code data/backend.properties}). Si en el arranque anterior se usó
+ * H2, no se espera al sondeo: se usa H2 directamente y el resultado
+ * del sondeo queda guardado para el siguiente arranque.
+ * </p>
+ *
+ * @author yhon
+ */
+public class DetectorBaseDatos {
+
+    /**
+     * Bases de datos soportadas y su fichero de configuración de Hibernate.
+     */
+    public enum Backend {
+        /** MySQL en localhost (Docker) */
+        MYSQL("hibernate.cfg.xml"),
+        /** H2 embebido en el directorio {@code data/} */
+        H2("hibernate-h2.cfg.xml");
+
+        private final String configuracion;
+
+        Backend(String configuracion) {
+            this.configuracion = configuracion;
+        }
+
+        /**
+         * Devuelve el fichero de configuración de Hibernate del backend.
+         *
+         * @return nombre del recurso {@code .cfg.xml}
+         */
+        public String getConfiguracion() {
+            return configuracion;
+        }
+    }
+
+    private static final Logger logger = Logger.getLogger(DetectorBaseDatos.class.getName());
+
+    /** Host del servidor MySQL. */
+    private static final String MYSQL_HOST = "localhost";
+
+    /** Puerto del servidor MySQL. */
+    private static final int MYSQL_PUERTO = 3306;
+
+    /** Tiempo máximo para abrir el socket TCP (ms). */
+    private static final int TIMEOUT_SOCKET_MS = 300;
+
+    /** Tiempo máximo de conexión y lectura del driver JDBC (ms). */
+    private static final int TIMEOUT_JDBC_MS = 1500;
+
+    /**
+     * URL de sondeo, con los tiempos de espera del driver en la propia URL
+     * para no modificar el {@code loginTimeout} global de DriverManager.
+     */
+    private static final String MYSQL_URL =
+            "jdbc:mysql://" + MYSQL_HOST + ":" + MYSQL_PUERTO + "/proyecto_dam"
+            + "?connectTimeout=" + TIMEOUT_JDBC_MS
+            + "&socketTimeout=" + TIMEOUT_JDBC_MS;
+
+    /** Espera máxima al sondeo cuando el último backend conocido es H2 (ms). */
+    private static final long ESPERA_CON_H2_MS = TIMEOUT_SOCKET_MS;
+
+    /** Espera máxima al sondeo en el resto de casos (ms). */
+    private static final long ESPERA_MAXIMA_MS = TIMEOUT_SOCKET_MS + 2L * TIMEOUT_JDBC_MS;
+
+    /** Intervalo entre comprobaciones en segundo plano (minutos). */
+    private static final long INTERVALO_COMPROBACION_MIN = 5;
+
+    /** Fichero de estado con el último backend que funcionó. */
+    private static final Path FICHERO_ESTADO = Paths.get("data", "backend.properties");
+
+    /** Hilo de sondeo (daemon para no impedir el cierre de la JVM). */
+    private static final ScheduledExecutorService EJECUTOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "detector-bd");
+                t.setDaemon(true);
+                return t;
+            });
+
+    /** Sondeo inicial, lanzado una única vez. */
+    private static CompletableFuture<Backend> sondeo;
+
+    /**
+     * Lanza el sondeo de la base de datos si aún no se ha lanzado.
+     * <p>
+     * Se llama al arrancar la aplicación para que la comprobación se
+     * realice en paralelo mientras se muestra la ventana de login.
+     * Además programa comprobaciones periódicas que mantienen
+     * actualizado el fichero de estado.
+     * </p>
+     *
+     * @return futuro con el backend detectado
+     */
+    public static synchronized CompletableFuture<Backend> iniciarSondeo() {
+        if (sondeo == null) {
+            sondeo = CompletableFuture.supplyAsync(DetectorBaseDatos::sondear, EJECUTOR);
+            EJECUTOR.scheduleWithFixedDelay(
+                    DetectorBaseDatos::sondear,
+                    INTERVALO_COMPROBACION_MIN,
+                    INTERVALO_COMPROBACION_MIN,
+                    TimeUnit.MINUTES
+            );
+        }
+        return sondeo;
+    }
+
+    /**
+     * Decide qué backend utilizar.
+     * <p>
+     * Si el sondeo ya ha terminado se usa su resultado. Si no, se espera
+     * como mucho un tiempo acotado: muy corto si el último backend
+     * conocido es H2 y algo mayor en caso contrario. Si el sondeo no
+     * responde a tiempo se utiliza H2.
+     * </p>
+     *
+     * @return backend a utilizar
+     */
+    public static Backend resolver() {
+        CompletableFuture<Backend> futuro = iniciarSondeo();
+
+        long espera = ultimoBackendConocido() == Backend.H2
+                ? ESPERA_CON_H2_MS
+                : ESPERA_MAXIMA_MS;
+
+        try {
+            return futuro.get(espera, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Sondeo lento o fallido: nunca se bloquea el arranque
+            return Backend.H2;
+        }
+    }
+
+    /**
+     * Devuelve el último backend que funcionó según el fichero de estado.
+     *
+     * @return último backend conocido o {@code null} si no hay estado guardado
+     */
+    public static Backend ultimoBackendConocido() {
+        if (!Files.exists(FICHERO_ESTADO)) {
+            return null;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(FICHERO_ESTADO)) {
+            props.load(in);
+            return Backend.valueOf(props.getProperty("backend"));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Comprueba si MySQL está disponible y guarda el resultado.
+     *
+     * @return backend disponible
+     */
+    private static Backend sondear() {
+        Backend backend = mysqlDisponible() ? Backend.MYSQL : Backend.H2;
+        guardarEstado(backend);
+        return backend;
+    }
+
+    /**
+     * Comprueba si una base de datos MySQL está disponible.
+     * <p>
+     * Primero abre un socket TCP con un tiempo de espera muy corto, lo
+     * que descarta al instante los equipos sin MySQL. Solo si el puerto
+     * responde se intenta la conexión JDBC completa.
+     * </p>
+     *
+     * @return {@code true} si MySQL está disponible, {@code false} en caso contrario
+     */
+    private static boolean mysqlDisponible() {
+        try (Socket socket = new Socket()) {
+            socket.connect(
+                    new InetSocketAddress(MYSQL_HOST, MYSQL_PUERTO),
+                    TIMEOUT_SOCKET_MS
+            );
+        } catch (IOException e) {
+            return false;
+        }
+
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            try (Connection conn = DriverManager.getConnection(MYSQL_URL, "root", "root")) {
+                return conn.isValid(TIMEOUT_JDBC_MS / 1000);
+            }
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Guarda el backend detectado en el fichero de estado.
+     *
+     * @param backend backend que ha funcionado
+     */
+    private static void guardarEstado(Backend backend) {
+        if (backend == ultimoBackendConocido()) {
+            return;
+        }
+
+        Properties props = new Properties();
+        props.setProperty("backend", backend.name());
+        props.setProperty("comprobado", LocalDateTime.now().toString());
+
+        try {
+            Files.createDirectories(FICHERO_ESTADO.getParent());
+            try (OutputStream out = Files.newOutputStream(FICHERO_ESTADO)) {
+                props.store(out, "Ultima base de datos disponible");
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se pudo guardar el estado de la base de datos", e);
+        }
+    }
+}
@@ -4,11 +4,15 @@ import jakarta.mail.Authenticator;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.PasswordAuthentication;
+import jakarta.mail.SendFailedException;
 import jakarta.mail.Session;
 import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Utilidad para el envío de correos electrónicos.
@@ -18,6 +22,22 @@ import java.util.Properties;
  * principalmente en el proceso de recuperación de contraseña.
  * </p>
  *
+ * <p>
+ * La sesión de correo se crea una sola vez y la conexión SMTP
+ * (conexión, STARTTLS y autenticación) se reutiliza entre envíos: un
+ * lote de mensajes cuesta un único saludo con el servidor. Si la
+ * conexión se ha cortado, se abre otra y se repite el envío una vez; si
+ * pasa más de {@value #INACTIVIDAD_MAXIMA_S} s sin usarse, se cierra
+ * ({@link #cerrarSiInactiva()}).
+ * </p>
+ *
+ * <p>
+ * El servidor se puede cambiar con propiedades del sistema, por ejemplo
+ * para probar contra un servidor SMTP local:
+ * {@code -Dproyectodam.smtp.host=localhost -Dproyectodam.smtp.port=2525
+ * -Dproyectodam.smtp.auth=false -Dproyectodam.smtp.starttls=false}.
+ * </p>
+ *
  * <p><strong>Nota de seguridad:</strong> Las credenciales están
  * incluidas únicamente con fines de prueba en un entorno académico.
  * En un entorno de producción se deberían utilizar variables de
@@ -27,6 +47,8 @@ import java.util.Properties;
  */
 public class EmailUtil {
 
+    private static final Logger logger = Logger.getLogger(EmailUtil.class.getName());
+
     /**
      * Dirección de correo remitente.
      * <p>
@@ -43,11 +65,55 @@ public class EmailUtil {
      */
     private static final String PASSWORD = "hoaq fmet jsgs aolj";
 
+    /** Servidor SMTP. */
+    private static final String HOST = System.getProperty("proyectodam.smtp.host", "smtp.gmail.com");
+
+    /** Puerto del servidor SMTP. */
+    private static final String PUERTO = System.getProperty("proyectodam.smtp.port", "587");
+
+    /** Si el servidor requiere autenticación. */
+    private static final String AUTENTICACION = System.getProperty("proyectodam.smtp.auth", "true");
+
+    /** Si se cifra la conexión con STARTTLS. */
+    private static final String STARTTLS = System.getProperty("proyectodam.smtp.starttls", "true");
+
+    /**
+     * Tiempo máximo de conexión, lectura y escritura (ms). Sin él, un
+     * servidor que no responde bloquearía el envío indefinidamente.
+     */
+    private static final String TIEMPO_MAXIMO_MS = "10000";
+
+    /**
+     * Tiempo sin envíos tras el que se cierra la conexión (segundos).
+     * Los servidores SMTP suelen cortar antes las conexiones ociosas.
+     */
+    private static final long INACTIVIDAD_MAXIMA_S = 60;
+
+    /** Sesión de correo, creada en el primer envío. */
+    private static Session sesion;
+
+    /** Conexión SMTP abierta, o {@code null} si no hay ninguna. */
+    private static Transport conexion;
+
+    /** Último uso de la conexión ({@code System.nanoTime}). */
+    private static long ultimoUso;
+
+    /** Conexiones abiertas desde el arranque. */
+    private static long conexionesAbiertas;
+
+    private EmailUtil() {
+    }
+
     /**
      * Envía un correo electrónico mediante SMTP.
      * <p>
      * Configura una sesión segura con autenticación TLS y envía
-     * un mensaje de texto simple al destinatario indicado.
+     * un mensaje de texto simple al destinatario indicado, por la
+     * conexión abierta si la hay.
+     * </p>
+     * <p>
+     * El envío es bloqueante: la aplicación no lo llama directamente,
+     * sino a través de la bandeja de salida ({@code EnvioCorreos}).
      * </p>
      *
      * @param destino dirección de correo del destinatario
@@ -55,29 +121,13 @@ public class EmailUtil {
      * @param texto contenido del mensaje
      * @throws MessagingException si ocurre un error durante el envío
      */
-    public static void enviar(
+    public static synchronized void enviar(
             String destino,
             String asunto,
             String texto
     ) throws MessagingException {
 
-        Properties props = new Properties();
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.host", "smtp.gmail.com");
-        props.put("mail.smtp.port", "587");
-
-        Session session = Session.getInstance(
-                props,
-                new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(FROM, PASSWORD);
-                    }
-                }
-        );
-
-        Message message = new MimeMessage(session);
+        Message message = new MimeMessage(sesion());
         message.setFrom(new InternetAddress(FROM));
         message.setRecipients(
                 Message.RecipientType.TO,
@@ -85,7 +135,107 @@ public class EmailUtil {
         );
         message.setSubject(asunto);
         message.setText(texto);
+        message.saveChanges();
+
+        boolean reutilizada = conexion != null;
+        try {
+            conectada().sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            // El servidor rechaza el mensaje, no la conexión
+            throw e;
+        } catch (MessagingException e) {
+            cerrar();
+            if (!reutilizada) {
+                throw e;
+            }
+            // La conexión reutilizada pudo cortarse mientras estaba ociosa
+            logger.log(Level.FINE, "Conexión SMTP perdida; se reconecta", e);
+            conectada().sendMessage(message, message.getAllRecipients());
+        }
+        ultimoUso = System.nanoTime();
+    }
+
+    /**
+     * Cierra la conexión SMTP si lleva más de
+     * {@value #INACTIVIDAD_MAXIMA_S} s sin usarse. Lo llama
+     * periódicamente el envío en segundo plano.
+     */
+    public static synchronized void cerrarSiInactiva() {
+        if (conexion != null
+                && System.nanoTime() - ultimoUso > TimeUnit.SECONDS.toNanos(INACTIVIDAD_MAXIMA_S)) {
+            cerrar();
+        }
+    }
+
+    /**
+     * Devuelve el número de conexiones SMTP abiertas desde el arranque.
+     *
+     * @return conexiones abiertas
+     */
+    public static synchronized long getConexionesAbiertas() {
+        return conexionesAbiertas;
+    }
+
+    /**
+     * Devuelve la sesión de correo, creándola la primera vez.
+     *
+     * @return sesión de correo
+     */
+    private static Session sesion() {
+        if (sesion == null) {
+            Properties props = new Properties();
+            props.put("mail.smtp.auth", AUTENTICACION);
+            props.put("mail.smtp.starttls.enable", STARTTLS);
+            props.put("mail.smtp.host", HOST);
+            props.put("mail.smtp.port", PUERTO);
+            props.put("mail.smtp.connectiontimeout", TIEMPO_MAXIMO_MS);
+            props.put("mail.smtp.timeout", TIEMPO_MAXIMO_MS);
+            props.put("mail.smtp.writetimeout", TIEMPO_MAXIMO_MS);
 
-        Transport.send(message);
+            sesion = Session.getInstance(
+                    props,
+                    new Authenticator() {
+                        @Override
+                        protected PasswordAuthentication getPasswordAuthentication() {
+                            return new PasswordAuthentication(FROM, PASSWORD);
+                        }
+                    }
+            );
+        }
+        return sesion;
+    }
+
+    /**
+     * Devuelve la conexión SMTP, abriéndola (con STARTTLS y
+     * autenticación) si no hay ninguna.
+     *
+     * @return conexión abierta
+     * @throws MessagingException si no se puede conectar
+     */
+    private static Transport conectada() throws MessagingException {
+        if (conexion == null) {
+            Transport t = sesion().getTransport("smtp");
+            t.connect();
+            conexion = t;
+            conexionesAbiertas++;
+        }
+        return conexion;
+    }
+
+    /**
+     * Cierra la conexión SMTP, ignorando los errores: puede que el
+     * servidor ya la haya cortado. El siguiente envío abre otra.
+     */
+    public static synchronized void cerrar() {
+        Transport t = conexion;
+        conexion = null;
+        if (t == null) {
+            return;
+        }
+        try {
+            t.close();
+        } catch (MessagingException e) {
+            logger.log(Level.FINE, "Error cerrando la conexión SMTP", e);
+        }
     }
 }
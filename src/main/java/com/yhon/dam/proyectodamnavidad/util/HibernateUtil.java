@@ -1,12 +1,29 @@
 package com.yhon.dam.proyectodamnavidad.util;
 
+import com.yhon.dam.proyectodamnavidad.modelo.CorreoSaliente;
+import com.yhon.dam.proyectodamnavidad.modelo.MovimientoPuntos;
 import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
+import com.yhon.dam.proyectodamnavidad.modelo.SolicitudCanje;
 import com.yhon.dam.proyectodamnavidad.modelo.Tarea;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 
 /**
  * Utilidad para la gestión de Hibernate.
@@ -16,84 +33,347 @@ import org.hibernate.cfg.Configuration;
  * </p>
  *
  * <p>
- * Detecta automáticamente si MySQL está disponible en el sistema.
- * En caso contrario, utiliza una base de datos H2 embebida como
- * alternativa, lo que facilita el desarrollo y las pruebas.
+ * Utiliza {@link DetectorBaseDatos} para saber si MySQL está disponible
+ * en el sistema. En caso contrario, utiliza una base de datos H2 embebida
+ * como alternativa, lo que facilita el desarrollo y las pruebas.
  * </p>
  *
- * Implementa el patrón Singleton de forma sencilla para una
- * aplicación de escritorio.
+ * <p>
+ * Las conexiones JDBC se obtienen de un pool HikariCP configurado en
+ * cada fichero {@code hibernate*.cfg.xml}, de modo que cada perfil
+ * (MySQL o H2) tiene su propio tamaño, validación y tiempo de vida.
+ * </p>
+ *
+ * Implementa el patrón Singleton de forma segura entre hilos: la
+ * instancia se construye una única vez aunque varios hilos la pidan
+ * a la vez, y se cierra ordenadamente al terminar la JVM.
  *
  * @author yhon
  */
 public class HibernateUtil {
 
+    private static final Logger logger = Logger.getLogger(HibernateUtil.class.getName());
+
+    /**
+     * Código de error de H2 cuando la base de datos ya la ha cerrado su
+     * propio hook de salida ({@code DATABASE_CALLED_AT_SHUTDOWN}).
+     */
+    private static final int H2_CERRADA_AL_SALIR = 90121;
+
     /**
      * Única instancia de SessionFactory de la aplicación.
+     * <p>
+     * Es {@code volatile} para que el acceso sin bloqueo del
+     * double-checked locking vea siempre una instancia completamente
+     * construida.
+     * </p>
+     */
+    private static volatile SessionFactory sessionFactory;
+
+    /**
+     * Cerrojo que protege el arranque, la publicación y el cierre de la
+     * SessionFactory.
+     */
+    private static final Object CERROJO = new Object();
+
+    /**
+     * Base de datos con la que se ha construido la SessionFactory.
+     */
+    private static volatile DetectorBaseDatos.Backend backendActivo;
+
+    /**
+     * Propiedades de la configuración activa (URL y credenciales), para
+     * conectarse sin Hibernate al cerrar.
+     */
+    private static volatile Properties propiedadesActivas;
+
+    /**
+     * Arranque en segundo plano de la SessionFactory.
+     * <p>
+     * Se crea una única vez; todas las llamadas posteriores reciben
+     * el mismo futuro.
+     * </p>
      */
-    private static SessionFactory sessionFactory;
+    private static CompletableFuture<SessionFactory> arranque;
+
+    /**
+     * Inicia la construcción de la {@link SessionFactory} en un hilo
+     * en segundo plano.
+     * <p>
+     * Se invoca al arrancar la aplicación para que la detección de la
+     * base de datos y la construcción del metamodelo de Hibernate no
+     * bloqueen el hilo de eventos de Swing. Si ya se había iniciado,
+     * devuelve el mismo futuro y el callback de progreso se ignora.
+     * </p>
+     *
+     * @param progreso callback que recibe los textos de cada fase del
+     * arranque (puede ser {@code null})
+     * @return futuro que se completa cuando la SessionFactory está lista
+     */
+    public static CompletableFuture<SessionFactory> iniciarEnSegundoPlano(
+            Consumer<String> progreso
+    ) {
+        synchronized (CERROJO) {
+            if (arranque != null) {
+                return arranque;
+            }
+
+            Consumer<String> informar = progreso != null ? progreso : texto -> { };
+
+            arranque = new CompletableFuture<>();
+            Thread hilo = new Thread(() -> {
+                try {
+                    arranque.complete(construir(informar));
+                } catch (Throwable ex) {
+                    arranque.completeExceptionally(ex);
+                }
+            }, "arranque-hibernate");
+            hilo.setDaemon(true);
+            hilo.start();
+
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(HibernateUtil::shutdown, "cierre-hibernate")
+            );
+            return arranque;
+        }
+    }
+
+    /**
+     * Devuelve el futuro que indica cuándo Hibernate está listo.
+     * <p>
+     * Si el arranque no se había iniciado, lo inicia.
+     * </p>
+     *
+     * @return futuro que se completa con la SessionFactory
+     */
+    public static CompletableFuture<SessionFactory> listo() {
+        return iniciarEnSegundoPlano(null);
+    }
 
     /**
      * Devuelve la {@link SessionFactory} de Hibernate.
      * <p>
-     * Si no existe todavía, la crea configurando automáticamente
-     * el origen de datos (MySQL o H2) y registrando las entidades
-     * anotadas del sistema.
+     * Si todavía se está construyendo en segundo plano, espera a que
+     * termine. Si no se había iniciado, inicia el arranque.
+     * </p>
+     *
+     * <p>
+     * Utiliza double-checked locking: una vez publicada la instancia,
+     * las llamadas posteriores no toman ningún cerrojo. Todos los hilos,
+     * incluidos los que llegan a la vez durante el arranque, reciben la
+     * misma instancia (un único pool y una única migración de esquema).
      * </p>
      *
      * @return instancia única de SessionFactory
      * @throws ExceptionInInitializerError si ocurre un error al inicializar Hibernate
+     * @throws IllegalStateException si Hibernate ya se ha cerrado
      */
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                Configuration cfg = new Configuration();
-
-                if (mysqlDisponible()) {
-                    System.out.println("MySQL detectado");
-                    cfg.configure("hibernate.cfg.xml");
-                } else {
-                    System.out.println("MySQL no disponible → usando H2");
-                    cfg.configure("hibernate-h2.cfg.xml");
-                }
+        SessionFactory sf = sessionFactory;
+        if (sf != null) {
+            return sf;
+        }
+
+        CompletableFuture<SessionFactory> futuro = listo();
+        try {
+            // Se espera fuera del cerrojo para no bloquear el cierre
+            sf = futuro.join();
+        } catch (CompletionException ex) {
+            throw new ExceptionInInitializerError(ex.getCause());
+        }
+
+        synchronized (CERROJO) {
+            if (sf.isClosed()) {
+                throw new IllegalStateException("Hibernate ya se ha cerrado");
+            }
+            if (sessionFactory == null) {
+                sessionFactory = sf;
+            }
+            return sessionFactory;
+        }
+    }
 
-                // Registro explícito de entidades anotadas
-                cfg.addAnnotatedClass(Usuario.class);
-                cfg.addAnnotatedClass(Tarea.class);
-                cfg.addAnnotatedClass(Recompensa.class);
+    /**
+     * Cierra Hibernate de forma ordenada.
+     * <p>
+     * Se ejecuta automáticamente al terminar la JVM. Cierra la
+     * SessionFactory, lo que vacía también el pool de conexiones. Si la
+     * base de datos es H2 y ningún otro proceso está conectado a ella
+     * (modo {@code AUTO_SERVER}), después se ejecuta
+     * {@code SHUTDOWN COMPACT} con una conexión JDBC propia para compactar
+     * el fichero de datos: hacerlo desde una sesión del pool cerraría la
+     * base de datos debajo de esa misma sesión.
+     * </p>
+     *
+     * <p>
+     * H2 registra su propio hook de salida, que no puede desactivarse en
+     * modo {@code AUTO_SERVER}; si se ejecuta antes, la base de datos ya
+     * estará cerrada y compactada según {@code MAX_COMPACT_TIME}, y el
+     * error que lo indica se ignora.
+     * </p>
+     */
+    public static void shutdown() {
+        synchronized (CERROJO) {
+            if (arranque == null || !arranque.isDone()
+                    || arranque.isCompletedExceptionally()) {
+                return;
+            }
 
-                sessionFactory = cfg.buildSessionFactory();
+            SessionFactory sf = arranque.join();
+            if (sf.isClosed()) {
+                return;
+            }
 
-            } catch (Throwable ex) {
-                System.err.println("❌ Error creando SessionFactory");
-                ex.printStackTrace();
-                throw new ExceptionInInitializerError(ex);
+            if (backendActivo == DetectorBaseDatos.Backend.H2) {
+                compactarH2(sf);
             }
+
+            sf.close();
+            sessionFactory = null;
         }
-        return sessionFactory;
     }
 
     /**
-     * Comprueba si una base de datos MySQL está disponible.
+     * Cierra la SessionFactory y compacta el almacén H2 si este proceso es
+     * el único conectado.
      * <p>
-     * Intenta cargar el driver de MySQL y establecer una conexión
-     * con la base de datos configurada.
+     * Se usa una conexión JDBC propia, fuera del pool: primero cuenta las
+     * sesiones abiertas en H2, ya que {@code SHUTDOWN COMPACT} cierra la
+     * base de datos para todas las conexiones y solo se ejecuta si todas
+     * son de esta aplicación. Después se cierra la SessionFactory, que
+     * vacía el pool, y se compacta con esa conexión, que mantiene la base
+     * de datos abierta entretanto.
      * </p>
      *
-     * @return {@code true} si MySQL está disponible, {@code false} en caso contrario
+     * @param sf SessionFactory que se va a cerrar
+     */
+    private static void compactarH2(SessionFactory sf) {
+        HikariPoolMXBean pool = getEstadisticasPool(sf);
+        Properties props = propiedadesActivas;
+        String url = props.getProperty("hibernate.connection.url").trim();
+        String usuario = props.getProperty("hibernate.connection.username", "").trim();
+        String password = props.getProperty("hibernate.connection.password", "").trim();
+
+        try (Connection conn = DriverManager.getConnection(url, usuario, password);
+             Statement st = conn.createStatement()) {
+            int sesiones;
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS")) {
+                rs.next();
+                sesiones = rs.getInt(1);
+            }
+            // Las del pool más esta conexión
+            int propias = (pool != null ? pool.getTotalConnections() : 1) + 1;
+
+            if (sesiones <= propias) {
+                sf.close();
+                st.execute("SHUTDOWN COMPACT");
+            }
+        } catch (SQLException e) {
+            registrarErrorCierre("Error compactando la base de datos H2", e);
+        }
+    }
+
+    /**
+     * Registra un error del cierre de H2, salvo si la base de datos ya la
+     * había cerrado su propio hook de salida, que no puede desactivarse en
+     * modo {@code AUTO_SERVER} y que también compacta
+     * ({@code MAX_COMPACT_TIME} en la URL).
+     *
+     * @param mensaje descripción de la operación
+     * @param e error
+     */
+    private static void registrarErrorCierre(String mensaje, SQLException e) {
+        if (e.getErrorCode() != H2_CERRADA_AL_SALIR) {
+            logger.log(Level.WARNING, mensaje, e);
+        }
+    }
+
+    /**
+     * Construye la SessionFactory configurando automáticamente el origen
+     * de datos (MySQL o H2), aplicando las migraciones de esquema
+     * pendientes con {@link MigradorEsquema} y registrando las entidades
+     * anotadas.
+     *
+     * @param progreso callback de progreso
+     * @return SessionFactory construida
      */
-    private static boolean mysqlDisponible() {
+    private static SessionFactory construir(Consumer<String> progreso) {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            Connection conn = DriverManager.getConnection(
-                    "jdbc:mysql://localhost:3306/proyecto_dam",
-                    "root",
-                    "root"
-            );
-            conn.close();
-            return true;
-        } catch (Exception e) {
-            return false;
+            Configuration cfg = new Configuration();
+
+            progreso.accept(I18n.t("splash.database"));
+            DetectorBaseDatos.Backend backend = DetectorBaseDatos.resolver();
+            if (backend == DetectorBaseDatos.Backend.MYSQL) {
+                System.out.println("MySQL detectado");
+            } else {
+                System.out.println("MySQL no disponible → usando H2");
+            }
+            cfg.configure(backend.getConfiguracion());
+            backendActivo = backend;
+            propiedadesActivas = cfg.getProperties();
+
+            progreso.accept(I18n.t("splash.schema"));
+            MigradorEsquema.migrar(cfg.getProperties());
+
+            registrarEntidades(cfg);
+
+            progreso.accept(I18n.t("splash.hibernate"));
+            return cfg.buildSessionFactory();
+
+        } catch (Throwable ex) {
+            System.err.println("❌ Error creando SessionFactory");
+            ex.printStackTrace();
+            throw ex;
         }
     }
+
+    /**
+     * Registra explícitamente las entidades anotadas en una configuración.
+     *
+     * @param cfg configuración de Hibernate
+     */
+    static void registrarEntidades(Configuration cfg) {
+        cfg.addAnnotatedClass(Usuario.class);
+        cfg.addAnnotatedClass(Tarea.class);
+        cfg.addAnnotatedClass(Recompensa.class);
+        cfg.addAnnotatedClass(MovimientoPuntos.class);
+        cfg.addAnnotatedClass(SolicitudCanje.class);
+        cfg.addAnnotatedClass(CorreoSaliente.class);
+    }
+
+    /**
+     * Devuelve las estadísticas del pool de conexiones en uso.
+     * <p>
+     * Permite consultar conexiones activas, ociosas, totales y los hilos
+     * que están esperando una conexión. Devuelve {@code null} si el
+     * proveedor de conexiones configurado no es HikariCP.
+     * </p>
+     *
+     * @return estadísticas del pool o {@code null} si no hay pool HikariCP
+     */
+    public static HikariPoolMXBean getEstadisticasPool() {
+        return getEstadisticasPool(getSessionFactory());
+    }
+
+    /**
+     * Devuelve las estadísticas del pool de una SessionFactory concreta.
+     *
+     * @param sf SessionFactory cuyo pool se consulta
+     * @return estadísticas del pool o {@code null} si no hay pool HikariCP
+     */
+    private static HikariPoolMXBean getEstadisticasPool(SessionFactory sf) {
+        ConnectionProvider provider = sf
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+
+        if (provider == null || !provider.isUnwrappableAs(DataSource.class)) {
+            return null;
+        }
+
+        DataSource ds = provider.unwrap(DataSource.class);
+        return ds instanceof HikariDataSource hikari
+                ? hikari.getHikariPoolMXBean()
+                : null;
+    }
 }
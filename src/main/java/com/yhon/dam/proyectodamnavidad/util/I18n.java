@@ -74,6 +74,35 @@ public class I18n {
         }
     }
 
+    /**
+     * Obtiene la traducción de una clave en un idioma concreto, sin
+     * cambiar el idioma activo.
+     * <p>
+     * Lo usan los procesos en segundo plano, que no deben depender de un
+     * cambio de idioma hecho mientras trabajan.
+     * </p>
+     *
+     * @param locale idioma de la traducción
+     * @param key clave del texto a traducir
+     * @return texto traducido o la clave entre exclamaciones
+     */
+    public static String t(Locale locale, String key) {
+        try {
+            return ResourceBundle.getBundle("messages", locale).getString(key);
+        } catch (Exception e) {
+            return "!" + key + "!";
+        }
+    }
+
+    /**
+     * Devuelve el idioma activo de la aplicación.
+     *
+     * @return idioma activo
+     */
+    public static Locale getLocale() {
+        return bundle.getLocale();
+    }
+
     /**
      * Obtiene la traducción de un rol de usuario.
      * <p>
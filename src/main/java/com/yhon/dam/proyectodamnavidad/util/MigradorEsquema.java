@@ -0,0 +1,297 @@
+package com.yhon.dam.proyectodamnavidad.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Migrador versionado del esquema de la base de datos.
+ * <p>
+ * Sustituye a {@code hibernate.hbm2ddl.auto=update}: en lugar de que
+ * Hibernate inspeccione todo el esquema en cada arranque, se aplican
+ * en orden los scripts SQL de {@code db/migracion/} que aún no se han
+ * ejecutado. El índice de scripts es {@code db/migracion/migraciones.txt}.
+ * </p>
+ *
+ * <p>
+ * Cada migración aplicada se registra en la tabla {@code schema_version}
+ * junto con el checksum SHA-256 de su script. Si un script ya aplicado
+ * se modifica después, el arranque se detiene: los cambios de esquema
+ * deben ir siempre en una migración nueva.
+ * </p>
+ *
+ * Los scripts usan SQL común a H2 y MySQL. Para borrar un índice se
+ * escribe {@code DROP INDEX nombre ON tabla}: es la sintaxis de MySQL y
+ * H2 también la acepta (sin {@code ON}, MySQL la rechaza). En MySQL las
+ * sentencias DDL confirman la transacción implícitamente, por lo que una
+ * migración que falle a medias debe corregirse a mano antes de volver a
+ * arrancar.
+ *
+ * @author yhon
+ */
+public class MigradorEsquema {
+
+    private static final Logger logger = Logger.getLogger(MigradorEsquema.class.getName());
+
+    /** Directorio (en el classpath) de los scripts de migración. */
+    private static final String DIRECTORIO = "db/migracion/";
+
+    /** Índice con la lista ordenada de scripts. */
+    private static final String INDICE = DIRECTORIO + "migraciones.txt";
+
+    /** Formato del nombre de los scripts: {@code V<version>__<descripcion>.sql}. */
+    private static final Pattern NOMBRE_SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    /** Tabla de control de versiones del esquema. */
+    private static final String CREAR_TABLA_VERSIONES =
+            "CREATE TABLE IF NOT EXISTS schema_version ("
+            + " version INTEGER NOT NULL,"
+            + " descripcion VARCHAR(200) NOT NULL,"
+            + " script VARCHAR(200) NOT NULL,"
+            + " checksum VARCHAR(64) NOT NULL,"
+            + " aplicada_en TIMESTAMP NOT NULL,"
+            + " PRIMARY KEY (version))";
+
+    /**
+     * Migración declarada en el índice.
+     *
+     * @param version número de versión
+     * @param descripcion descripción tomada del nombre del script
+     * @param script nombre del script
+     * @param sql contenido del script
+     * @param checksum SHA-256 del contenido
+     */
+    private record Migracion(int version, String descripcion, String script,
+            String sql, String checksum) {
+    }
+
+    private MigradorEsquema() {
+    }
+
+    /**
+     * Aplica las migraciones pendientes sobre la base de datos configurada.
+     * <p>
+     * Se conecta con una conexión JDBC propia, usando la URL y las
+     * credenciales de la configuración de Hibernate, antes de que se
+     * construya la SessionFactory y se abra el pool.
+     * </p>
+     *
+     * @param propiedades propiedades de la configuración de Hibernate
+     * @return número de migraciones aplicadas en esta ejecución
+     * @throws IllegalStateException si un script aplicado ha cambiado o
+     * si una migración falla
+     */
+    public static int migrar(Properties propiedades) {
+        String url = propiedades.getProperty("hibernate.connection.url").trim();
+        String usuario = propiedades.getProperty("hibernate.connection.username", "").trim();
+        String password = propiedades.getProperty("hibernate.connection.password", "").trim();
+
+        List<Migracion> migraciones = leerMigraciones();
+
+        try (Connection conn = DriverManager.getConnection(url, usuario, password)) {
+            try (Statement st = conn.createStatement()) {
+                st.execute(CREAR_TABLA_VERSIONES);
+            }
+
+            Map<Integer, String> aplicadas = leerAplicadas(conn);
+            int nuevas = 0;
+
+            for (Migracion m : migraciones) {
+                String checksum = aplicadas.get(m.version());
+
+                if (checksum == null) {
+                    aplicar(conn, m);
+                    nuevas++;
+                } else if (!checksum.equals(m.checksum())) {
+                    throw new IllegalStateException(
+                            "La migración " + m.script() + " ha cambiado después de aplicarse"
+                    );
+                }
+            }
+
+            if (nuevas > 0) {
+                logger.info("Esquema actualizado: " + nuevas + " migración(es) aplicada(s)");
+            }
+            return nuevas;
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error migrando el esquema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ejecuta una migración y la registra en {@code schema_version}.
+     *
+     * @param conn conexión JDBC
+     * @param m migración a aplicar
+     * @throws SQLException si falla alguna sentencia
+     */
+    private static void aplicar(Connection conn, Migracion m) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+
+        try (Statement st = conn.createStatement()) {
+            for (String sentencia : dividirSentencias(m.sql())) {
+                st.execute(sentencia);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version"
+                    + " (version, descripcion, script, checksum, aplicada_en)"
+                    + " VALUES (?, ?, ?, ?, ?)")) {
+                ps.setInt(1, m.version());
+                ps.setString(2, m.descripcion());
+                ps.setString(3, m.script());
+                ps.setString(4, m.checksum());
+                ps.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                ps.executeUpdate();
+            }
+
+            conn.commit();
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException(m.script() + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Lee las versiones ya aplicadas y sus checksums.
+     *
+     * @param conn conexión JDBC
+     * @return mapa versión → checksum
+     * @throws SQLException si falla la consulta
+     */
+    private static Map<Integer, String> leerAplicadas(Connection conn) throws SQLException {
+        Map<Integer, String> aplicadas = new HashMap<>();
+
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return aplicadas;
+    }
+
+    /**
+     * Lee el índice de migraciones y el contenido de cada script.
+     *
+     * @return migraciones en orden de aplicación
+     */
+    private static List<Migracion> leerMigraciones() {
+        List<Migracion> migraciones = new ArrayList<>();
+        int anterior = 0;
+
+        for (String linea : leerRecurso(INDICE).split("\n")) {
+            String script = linea.trim();
+            if (script.isEmpty() || script.startsWith("#")) {
+                continue;
+            }
+
+            Matcher matcher = NOMBRE_SCRIPT.matcher(script);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Nombre de migración no válido: " + script);
+            }
+
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= anterior) {
+                throw new IllegalStateException("Migraciones fuera de orden: " + script);
+            }
+            anterior = version;
+
+            String sql = leerRecurso(DIRECTORIO + script);
+            migraciones.add(new Migracion(
+                    version,
+                    matcher.group(2).replace('_', ' '),
+                    script,
+                    sql,
+                    checksum(sql)
+            ));
+        }
+        return migraciones;
+    }
+
+    /**
+     * Divide un script en sentencias.
+     * <p>
+     * Elimina los comentarios de línea ({@code --}) y separa por
+     * {@code ;}. Los scripts no deben usar {@code ;} dentro de literales.
+     * </p>
+     *
+     * @param sql contenido del script
+     * @return sentencias del script
+     */
+    private static List<String> dividirSentencias(String sql) {
+        StringBuilder sinComentarios = new StringBuilder();
+        for (String linea : sql.split("\n")) {
+            if (!linea.trim().startsWith("--")) {
+                sinComentarios.append(linea).append('\n');
+            }
+        }
+
+        List<String> sentencias = new ArrayList<>();
+        for (String sentencia : sinComentarios.toString().split(";")) {
+            if (!sentencia.isBlank()) {
+                sentencias.add(sentencia.trim());
+            }
+        }
+        return sentencias;
+    }
+
+    /**
+     * Calcula el checksum SHA-256 de un script.
+     *
+     * @param sql contenido del script (con saltos de línea normalizados)
+     * @return checksum en hexadecimal
+     */
+    private static String checksum(String sql) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sql.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lee un recurso de texto del classpath.
+     * <p>
+     * Los saltos de línea se normalizan a {@code \n} para que el checksum
+     * no dependa del sistema operativo en el que se hizo el checkout.
+     * </p>
+     *
+     * @param ruta ruta del recurso
+     * @return contenido del recurso
+     */
+    private static String leerRecurso(String ruta) {
+        try (InputStream in = MigradorEsquema.class.getClassLoader().getResourceAsStream(ruta)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encuentra el recurso " + ruta);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Error leyendo " + ruta, e);
+        }
+    }
+}
@@ -6,6 +6,17 @@ package com.yhon.dam.proyectodamnavidad.util;
 
 import com.password4j.Password;
 import com.password4j.Hash;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
 
 /**
  * Utilidad para la gestión segura de contraseñas.
@@ -20,10 +31,64 @@ import com.password4j.Hash;
  * garantizando así una mayor seguridad del sistema.
  * </p>
  *
+ * <p>
+ * Cada hash o comprobación BCrypt cuesta cientos de milisegundos de CPU,
+ * así que se calculan en un pool propio de {@value #COLA} tareas en cola
+ * como máximo y un hilo por núcleo menos uno, con prioridad baja, para
+ * que el hilo de eventos de Swing siempre tenga CPU. Los métodos
+ * {@code ...Async} devuelven un {@link CompletableFuture}; los síncronos
+ * esperan el resultado del pool, de modo que el número de cálculos
+ * simultáneos está acotado venga de donde venga la llamada. Con la cola
+ * llena, quien añade trabajo espera a que haya hueco, salvo el hilo de
+ * eventos, que nunca se bloquea: su futuro falla con
+ * {@link RejectedExecutionException}. Un cálculo pedido desde un hilo
+ * del propio pool (por ejemplo, en la continuación de otro futuro) se
+ * ejecuta en ese mismo hilo: esperar hueco en la cola o el resultado de
+ * otro cálculo desde allí podría bloquear el pool entero.
+ * </p>
+ *
  * @author yhon
  */
 public class PasswordUtil {
 
+    /** Hilos del pool: uno por núcleo, dejando uno libre para la interfaz. */
+    private static final int HILOS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /** Cálculos que pueden esperar en cola. */
+    private static final int COLA = 64;
+
+    /** Contador para numerar los hilos */
+    private static final AtomicInteger NUMERO_HILO = new AtomicInteger();
+
+    /** Pool de hilos daemon (no impide el cierre de la JVM) */
+    private static final ThreadPoolExecutor EJECUTOR = new ThreadPoolExecutor(
+            HILOS, HILOS,
+            60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(COLA),
+            r -> {
+                Thread t = new HiloHash(r, "hash-" + NUMERO_HILO.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.NORM_PRIORITY - 1);
+                return t;
+            },
+            PasswordUtil::esperarHueco
+    );
+
+    static {
+        EJECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Hilo del pool de hashes; permite reconocer las llamadas que vienen
+     * del propio pool.
+     */
+    private static final class HiloHash extends Thread {
+
+        HiloHash(Runnable r, String nombre) {
+            super(r, nombre);
+        }
+    }
+
     /**
      * Genera un hash seguro a partir de una contraseña en texto plano.
      * <p>
@@ -36,8 +101,47 @@ public class PasswordUtil {
      * @return hash de la contraseña
      */
     public static String hashPassword(String plainPassword) {
-        Hash hash = Password.hash(plainPassword).withBcrypt();
-        return hash.getResult();
+        return esperar(hashPasswordAsync(plainPassword));
+    }
+
+    /**
+     * Genera en el pool de hashes el hash de una contraseña.
+     *
+     * @param plainPassword contraseña en texto plano
+     * @return futuro con el hash de la contraseña
+     */
+    public static CompletableFuture<String> hashPasswordAsync(String plainPassword) {
+        return enPool(() -> {
+            Hash hash = Password.hash(plainPassword).withBcrypt();
+            return hash.getResult();
+        });
+    }
+
+    /**
+     * Genera en el pool de hashes los hashes de varias contraseñas,
+     * usando todos sus hilos a la vez.
+     * <p>
+     * Si hay más contraseñas que hueco en la cola, la llamada espera a
+     * que se vaya vaciando; no debe hacerse desde el hilo de eventos.
+     * </p>
+     *
+     * @param plainPasswords contraseñas en texto plano
+     * @return futuro con los hashes, en el mismo orden
+     */
+    public static CompletableFuture<List<String>> hashPasswordsAsync(List<String> plainPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(plainPasswords.size());
+        for (String p : plainPasswords) {
+            hashes.add(hashPasswordAsync(p));
+        }
+
+        return CompletableFuture.allOf(hashes.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    List<String> resultado = new ArrayList<>(hashes.size());
+                    for (CompletableFuture<String> h : hashes) {
+                        resultado.add(h.join());
+                    }
+                    return resultado;
+                });
     }
 
     /**
@@ -55,6 +159,88 @@ public class PasswordUtil {
             String plainPassword,
             String hashFromDB
     ) {
-        return Password.check(plainPassword, hashFromDB).withBcrypt();
+        return esperar(checkPasswordAsync(plainPassword, hashFromDB));
+    }
+
+    /**
+     * Comprueba en el pool de hashes si una contraseña coincide con su
+     * hash almacenado.
+     *
+     * @param plainPassword contraseña introducida por el usuario
+     * @param hashFromDB hash de la contraseña almacenada
+     * @return futuro con {@code true} si la contraseña es correcta
+     */
+    public static CompletableFuture<Boolean> checkPasswordAsync(
+            String plainPassword,
+            String hashFromDB
+    ) {
+        return enPool(() -> Password.check(plainPassword, hashFromDB).withBcrypt());
+    }
+
+    /**
+     * Lanza un cálculo en el pool de hashes.
+     *
+     * @param <T> tipo del resultado
+     * @param calculo cálculo a ejecutar
+     * @return futuro con el resultado, o fallido si el pool lo rechaza
+     */
+    private static <T> CompletableFuture<T> enPool(Supplier<T> calculo) {
+        if (Thread.currentThread() instanceof HiloHash) {
+            try {
+                return CompletableFuture.completedFuture(calculo.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(calculo, EJECUTOR);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Espera el resultado de un cálculo del pool y relanza su excepción
+     * tal cual, sin envolver.
+     *
+     * @param <T> tipo del resultado
+     * @param futuro futuro del cálculo
+     * @return resultado
+     */
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Política del pool con la cola llena: el hilo que añade el cálculo
+     * espera a que haya hueco, salvo el hilo de eventos de Swing.
+     *
+     * @param r cálculo rechazado
+     * @param ejecutor pool de hashes
+     * @throws RejectedExecutionException si la llamada viene del hilo de
+     * eventos, si se interrumpe la espera o si el pool está cerrado
+     */
+    private static void esperarHueco(Runnable r, ThreadPoolExecutor ejecutor) {
+        if (ejecutor.isShutdown() || SwingUtilities.isEventDispatchThread()) {
+            throw new RejectedExecutionException("Cola de hashes llena");
+        }
+        try {
+            ejecutor.getQueue().put(r);
+            // Por si los hilos han caducado mientras se esperaba
+            ejecutor.prestartCoreThread();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Espera interrumpida", e);
+        }
     }
 }
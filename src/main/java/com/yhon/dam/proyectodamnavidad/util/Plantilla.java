@@ -0,0 +1,317 @@
+package com.yhon.dam.proyectodamnavidad.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plantilla de texto para el cuerpo de los correos.
+ * <p>
+ * Las plantillas están en {@code plantillas/<nombre>_<idioma>.txt}, junto
+ * a los archivos {@code messages_*.properties}, y se leen y analizan una
+ * sola vez por idioma: {@link #de(String, Locale)} devuelve la versión ya
+ * compilada (una lista de nodos), que se puede usar desde varios hilos.
+ * Renderizar solo recorre los nodos y escribe en un
+ * {@link StringBuilder}, sin volver a analizar el texto.
+ * </p>
+ *
+ * Sintaxis (un subconjunto de Mustache, sin escapado: el correo es
+ * texto plano):
+ * <ul>
+ * <li>{@code {{nombre}}}: valor de la clave; nada si es {@code null}</li>
+ * <li>{@code {{#nombre}}...{{/nombre}}}: el bloque se repite para cada
+ * elemento si el valor es una colección (con las claves del elemento si
+ * es un {@link Map}), se escribe una vez si es {@code true} u otro valor
+ * distinto de {@code null}, y se omite si es {@code false},
+ * {@code null} o una colección vacía</li>
+ * <li>{@code {{^nombre}}...{{/nombre}}}: el bloque se escribe solo en
+ * los casos en que el anterior se omitiría</li>
+ * </ul>
+ *
+ * Una línea que solo contiene una etiqueta de bloque desaparece entera,
+ * con su salto de línea, para que los bloques no dejen líneas vacías.
+ *
+ * @author yhon
+ */
+public final class Plantilla {
+
+    /** Carpeta de las plantillas en el classpath. */
+    private static final String CARPETA = "plantillas/";
+
+    /** Idioma de las plantillas que no existen en el idioma pedido. */
+    private static final String IDIOMA_DEFECTO = "es";
+
+    /** Plantillas compiladas por nombre e idioma. */
+    private static final Map<String, Plantilla> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Nodo de una plantilla compilada.
+     */
+    private interface Nodo {
+    }
+
+    /** Texto literal. */
+    private record Texto(String texto) implements Nodo {
+    }
+
+    /** Valor de una clave. */
+    private record Variable(String clave) implements Nodo {
+    }
+
+    /** Bloque condicional o repetido ({@code invertido} para {@code ^}). */
+    private record Bloque(String clave, boolean invertido, List<Nodo> nodos) implements Nodo {
+    }
+
+    private final String nombre;
+    private final List<Nodo> nodos;
+
+    /** Longitud del texto literal; tamaño inicial del resultado. */
+    private final int longitudTexto;
+
+    private Plantilla(String nombre, List<Nodo> nodos, int longitudTexto) {
+        this.nombre = nombre;
+        this.nodos = nodos;
+        this.longitudTexto = longitudTexto;
+    }
+
+    /**
+     * Devuelve una plantilla compilada, leyéndola la primera vez. Si no
+     * existe en el idioma pedido, se usa la española.
+     *
+     * @param nombre nombre de la plantilla (sin idioma ni extensión)
+     * @param locale idioma
+     * @return plantilla compilada
+     * @throws IllegalArgumentException si la plantilla no existe o su
+     * sintaxis no es válida
+     */
+    public static Plantilla de(String nombre, Locale locale) {
+        String idioma = locale.getLanguage();
+        return CACHE.computeIfAbsent(nombre + "_" + idioma, clave -> {
+            String texto = leer(clave);
+            if (texto == null && !idioma.equals(IDIOMA_DEFECTO)) {
+                texto = leer(nombre + "_" + IDIOMA_DEFECTO);
+            }
+            if (texto == null) {
+                throw new IllegalArgumentException("No existe la plantilla " + clave);
+            }
+            return compilar(clave, texto);
+        });
+    }
+
+    /**
+     * Compila el texto de una plantilla.
+     *
+     * @param nombre nombre de la plantilla, para los mensajes de error
+     * @param texto texto de la plantilla
+     * @return plantilla compilada
+     * @throws IllegalArgumentException si la sintaxis no es válida
+     */
+    public static Plantilla compilar(String nombre, String texto) {
+        List<List<Nodo>> pila = new ArrayList<>();
+        List<String> abiertos = new ArrayList<>();
+        List<Boolean> invertidos = new ArrayList<>();
+        List<Nodo> actual = new ArrayList<>();
+        int longitudTexto = 0;
+        int pos = 0;
+
+        while (pos < texto.length()) {
+            int apertura = texto.indexOf("{{", pos);
+            if (apertura < 0) {
+                actual.add(new Texto(texto.substring(pos)));
+                longitudTexto += texto.length() - pos;
+                break;
+            }
+            int cierre = texto.indexOf("}}", apertura + 2);
+            if (cierre < 0) {
+                throw new IllegalArgumentException(nombre + ": etiqueta sin cerrar en " + apertura);
+            }
+
+            String etiqueta = texto.substring(apertura + 2, cierre).trim();
+            char tipo = etiqueta.isEmpty() ? ' ' : etiqueta.charAt(0);
+            boolean deBloque = tipo == '#' || tipo == '^' || tipo == '/';
+            int finTexto = apertura;
+            int siguiente = cierre + 2;
+
+            // Una etiqueta de bloque sola en su línea se lleva la línea
+            if (deBloque) {
+                int inicioLinea = texto.lastIndexOf('\n', apertura - 1) + 1;
+                int finLinea = texto.indexOf('\n', siguiente);
+                int finContenido = finLinea < 0 ? texto.length() : finLinea;
+                if (texto.substring(inicioLinea, apertura).isBlank()
+                        && texto.substring(siguiente, finContenido).isBlank()) {
+                    finTexto = Math.max(inicioLinea, pos);
+                    siguiente = finLinea < 0 ? texto.length() : finLinea + 1;
+                }
+            }
+
+            if (finTexto > pos) {
+                actual.add(new Texto(texto.substring(pos, finTexto)));
+                longitudTexto += finTexto - pos;
+            }
+
+            switch (tipo) {
+                case '#', '^' -> {
+                    pila.add(actual);
+                    abiertos.add(etiqueta.substring(1).trim());
+                    invertidos.add(tipo == '^');
+                    actual = new ArrayList<>();
+                }
+                case '/' -> {
+                    String clave = etiqueta.substring(1).trim();
+                    int ultimo = abiertos.size() - 1;
+                    if (ultimo < 0 || !abiertos.get(ultimo).equals(clave)) {
+                        throw new IllegalArgumentException(nombre + ": cierre inesperado de " + clave);
+                    }
+                    Bloque bloque = new Bloque(clave, invertidos.remove(ultimo), List.copyOf(actual));
+                    abiertos.remove(ultimo);
+                    actual = pila.remove(ultimo);
+                    actual.add(bloque);
+                }
+                default -> {
+                    if (etiqueta.isEmpty()) {
+                        throw new IllegalArgumentException(nombre + ": etiqueta vacía en " + apertura);
+                    }
+                    actual.add(new Variable(etiqueta));
+                }
+            }
+            pos = siguiente;
+        }
+
+        if (!abiertos.isEmpty()) {
+            throw new IllegalArgumentException(nombre + ": bloque sin cerrar " + abiertos.get(abiertos.size() - 1));
+        }
+        return new Plantilla(nombre, List.copyOf(actual), longitudTexto);
+    }
+
+    /**
+     * Renderiza la plantilla.
+     *
+     * @param valores valores de las claves
+     * @return texto resultante
+     */
+    public String renderizar(Map<String, ?> valores) {
+        StringBuilder sb = new StringBuilder(longitudTexto + 64);
+        renderizar(valores, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Renderiza la plantilla al final de un {@link StringBuilder}.
+     *
+     * @param valores valores de las claves
+     * @param destino donde se escribe el resultado
+     */
+    public void renderizar(Map<String, ?> valores, StringBuilder destino) {
+        List<Map<?, ?>> contextos = new ArrayList<>(4);
+        contextos.add(valores);
+        escribir(nodos, contextos, destino);
+    }
+
+    /**
+     * Devuelve el nombre de la plantilla (con el idioma).
+     *
+     * @return nombre
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Escribe una lista de nodos.
+     *
+     * @param nodos nodos a escribir
+     * @param contextos valores disponibles, del más externo al más interno
+     * @param destino donde se escribe el resultado
+     */
+    private static void escribir(List<Nodo> nodos, List<Map<?, ?>> contextos, StringBuilder destino) {
+        for (Nodo nodo : nodos) {
+            if (nodo instanceof Texto t) {
+                destino.append(t.texto());
+
+            } else if (nodo instanceof Variable v) {
+                Object valor = buscar(contextos, v.clave());
+                if (valor != null) {
+                    destino.append(valor);
+                }
+
+            } else if (nodo instanceof Bloque b) {
+                Object valor = buscar(contextos, b.clave());
+                boolean vacio = valor == null
+                        || Boolean.FALSE.equals(valor)
+                        || valor instanceof Collection<?> c && c.isEmpty();
+
+                if (b.invertido()) {
+                    if (vacio) {
+                        escribir(b.nodos(), contextos, destino);
+                    }
+                } else if (!vacio) {
+                    if (valor instanceof Collection<?> elementos) {
+                        for (Object elemento : elementos) {
+                            escribirEn(b.nodos(), elemento, contextos, destino);
+                        }
+                    } else {
+                        escribirEn(b.nodos(), valor, contextos, destino);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe el contenido de un bloque con las claves de un elemento, si
+     * es un {@link Map}, por delante de las demás.
+     *
+     * @param nodos contenido del bloque
+     * @param elemento valor del bloque
+     * @param contextos valores disponibles
+     * @param destino donde se escribe el resultado
+     */
+    private static void escribirEn(List<Nodo> nodos, Object elemento, List<Map<?, ?>> contextos,
+            StringBuilder destino) {
+        if (elemento instanceof Map<?, ?> m) {
+            contextos.add(m);
+            escribir(nodos, contextos, destino);
+            contextos.remove(contextos.size() - 1);
+        } else {
+            escribir(nodos, contextos, destino);
+        }
+    }
+
+    /**
+     * Busca una clave del contexto más interno al más externo.
+     *
+     * @param contextos valores disponibles
+     * @param clave clave buscada
+     * @return valor, o {@code null} si no está
+     */
+    private static Object buscar(List<Map<?, ?>> contextos, String clave) {
+        for (int i = contextos.size() - 1; i >= 0; i--) {
+            Map<?, ?> m = contextos.get(i);
+            if (m.containsKey(clave)) {
+                return m.get(clave);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lee una plantilla del classpath.
+     *
+     * @param clave nombre con idioma
+     * @return texto, o {@code null} si no existe
+     */
+    private static String leer(String clave) {
+        try (InputStream in = Plantilla.class.getClassLoader().getResourceAsStream(CARPETA + clave + ".txt")) {
+            return in == null ? null : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se puede leer la plantilla " + clave, e);
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.yhon.dam.proyectodamnavidad.util;
+
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Vigilante de la latencia del hilo de eventos de Swing (EDT).
+ * <p>
+ * Cada {@value #PERIODO_SONDA_MS} ms publica en la cola de eventos una
+ * sonda con la hora de envío; cuando el EDT la ejecuta, la diferencia es
+ * la latencia que está sufriendo la interfaz. Las latencias se acumulan
+ * en un histograma.
+ * </p>
+ *
+ * <p>
+ * Si una sonda lleva más de {@value #UMBRAL_BLOQUEO_MS} ms sin
+ * ejecutarse, el EDT está bloqueado: se captura su pila en ese momento,
+ * que señala el manejador de eventos culpable, y se registra el bloqueo
+ * con su duración final.
+ * </p>
+ *
+ * Los bloqueos y un resumen periódico del histograma se escriben en
+ * {@code data/diagnostico-edt.N.log} (rotativo, {@value #FICHEROS}
+ * ficheros de {@value #TAMANIO_FICHERO} bytes). Desde la aplicación se
+ * consultan con {@link #informe()}.
+ *
+ * El fichero no se asocia a ningún {@link Logger}: el {@code LogManager}
+ * cierra los manejadores de los loggers al apagarse la JVM, a la vez que
+ * los demás ganchos de cierre, y el resumen final se perdería. El
+ * vigilante escribe en él directamente y lo cierra él mismo después del
+ * resumen final.
+ *
+ * @author yhon
+ */
+public class VigilanteEdt {
+
+    private static final Logger logger = Logger.getLogger(VigilanteEdt.class.getName());
+
+    /** Intervalo entre sondas (ms). */
+    private static final long PERIODO_SONDA_MS = 100;
+
+    /** Espera a partir de la cual se considera que el EDT está bloqueado (ms). */
+    private static final long UMBRAL_BLOQUEO_MS = 500;
+
+    /** Intervalo entre resúmenes del histograma en el fichero (minutos). */
+    private static final long INTERVALO_RESUMEN_MIN = 5;
+
+    /** Bloqueos que se conservan en memoria para {@link #informe()}. */
+    private static final int MAX_BLOQUEOS = 20;
+
+    /** Tamaño máximo de cada fichero de diagnóstico (bytes). */
+    private static final int TAMANIO_FICHERO = 512 * 1024;
+
+    /** Número de ficheros de diagnóstico que se rotan. */
+    private static final int FICHEROS = 3;
+
+    /** Patrón de los ficheros de diagnóstico. */
+    private static final Path FICHERO = Paths.get("data", "diagnostico-edt.%g.log");
+
+    /** Límite superior (ms) de cada intervalo del histograma; el último no tiene límite. */
+    private static final long[] LIMITES_MS = {10, 25, 50, 100, 250, 500, 1000, 2000, 5000};
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    /** Registro de diagnóstico; solo se usa si no se puede abrir el fichero. */
+    private static final Logger diagnostico = Logger.getLogger("diagnostico.edt");
+
+    /** Fichero rotativo de diagnóstico, o {@code null} si no se ha podido abrir. */
+    private static volatile FileHandler fichero;
+
+    /** Hilo del vigilante (daemon para no impedir el cierre de la JVM). */
+    private static final ScheduledExecutorService EJECUTOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "vigilante-edt");
+                t.setDaemon(true);
+                return t;
+            });
+
+    /** Muestras por intervalo del histograma. */
+    private static final AtomicLongArray histograma = new AtomicLongArray(LIMITES_MS.length + 1);
+
+    /** Últimos bloqueos detectados, del más antiguo al más reciente. */
+    private static final Deque<Bloqueo> bloqueos = new ArrayDeque<>();
+
+    /** Hora de envío ({@code System.nanoTime}) de la sonda pendiente, o 0 si no hay. */
+    private static volatile long sondaEnviada;
+
+    /** Hilo del EDT, conocido desde la primera sonda. */
+    private static volatile Thread hiloEdt;
+
+    /** Latencia (ms) de la última sonda recibida; la escribe el EDT antes de liberar la sonda. */
+    private static volatile long ultimaLatenciaMs;
+
+    /**
+     * Bloqueo en curso. Solo lo usa el hilo del vigilante, que lo abre y
+     * lo cierra; el EDT nunca lo toca.
+     */
+    private static Bloqueo bloqueoActual;
+
+    /** Latencia máxima observada (ms). */
+    private static volatile long maximoMs;
+
+    /** Muestras desde el último resumen escrito. */
+    private static long muestrasResumidas;
+
+    private static boolean iniciado;
+
+    /**
+     * Bloqueo del EDT detectado por el vigilante.
+     */
+    private static final class Bloqueo {
+
+        final LocalDateTime inicio;
+        final String pila;
+        volatile long duracionMs = -1;
+
+        Bloqueo(LocalDateTime inicio, String pila) {
+            this.inicio = inicio;
+            this.pila = pila;
+        }
+    }
+
+    private VigilanteEdt() {
+    }
+
+    /**
+     * Arranca el vigilante si aún no está en marcha.
+     * <p>
+     * Si no se puede abrir el fichero de diagnóstico, el vigilante
+     * funciona igualmente y solo se puede consultar con {@link #informe()}.
+     * </p>
+     */
+    public static synchronized void iniciar() {
+        if (iniciado) {
+            return;
+        }
+        iniciado = true;
+
+        configurarFichero();
+
+        EJECUTOR.scheduleAtFixedRate(
+                VigilanteEdt::comprobar,
+                PERIODO_SONDA_MS, PERIODO_SONDA_MS, TimeUnit.MILLISECONDS
+        );
+        EJECUTOR.scheduleWithFixedDelay(
+                VigilanteEdt::escribirResumen,
+                INTERVALO_RESUMEN_MIN, INTERVALO_RESUMEN_MIN, TimeUnit.MINUTES
+        );
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(VigilanteEdt::cerrar, "cierre-vigilante-edt")
+        );
+    }
+
+    /**
+     * Envía una sonda si no hay ninguna pendiente o, si la hay y lleva
+     * demasiado tiempo esperando, registra el bloqueo.
+     * <p>
+     * Cuando la sonda de un bloqueo ya se ha recibido, el bloqueo se
+     * cierra aquí, con la latencia de esa sonda. Como solo hay una sonda
+     * pendiente cada vez, la siguiente latencia recibida es siempre la de
+     * la sonda que abrió el bloqueo, aunque el EDT la haya ejecutado
+     * mientras se capturaba su pila.
+     * </p>
+     */
+    private static void comprobar() {
+        long enviada = sondaEnviada;
+
+        if (enviada == 0) {
+            Bloqueo b = bloqueoActual;
+            if (b != null) {
+                b.duracionMs = ultimaLatenciaMs;
+                bloqueoActual = null;
+                registrar(Level.WARNING, "Fin del bloqueo iniciado a las "
+                        + b.inicio.format(FORMATO_HORA) + ": " + b.duracionMs + " ms");
+            }
+
+            long ahora = System.nanoTime();
+            sondaEnviada = ahora;
+            EventQueue.invokeLater(() -> recibirSonda(ahora));
+            return;
+        }
+
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enviada);
+        if (esperaMs >= UMBRAL_BLOQUEO_MS && bloqueoActual == null) {
+            Thread edt = hiloEdt;
+            Bloqueo b = new Bloqueo(
+                    LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(esperaMs)),
+                    edt != null ? formatearPila(edt.getStackTrace()) : "(EDT aún no identificado)"
+            );
+            bloqueoActual = b;
+
+            synchronized (bloqueos) {
+                bloqueos.addLast(b);
+                if (bloqueos.size() > MAX_BLOQUEOS) {
+                    bloqueos.removeFirst();
+                }
+            }
+            registrar(Level.WARNING, "EDT bloqueado más de " + UMBRAL_BLOQUEO_MS + " ms. Pila:\n" + b.pila);
+        }
+    }
+
+    /**
+     * Ejecuta la sonda en el EDT: registra la latencia y deja la sonda
+     * libre para la siguiente.
+     *
+     * @param enviada hora de envío de la sonda ({@code System.nanoTime})
+     */
+    private static void recibirSonda(long enviada) {
+        long latenciaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enviada);
+        hiloEdt = Thread.currentThread();
+
+        int i = 0;
+        while (i < LIMITES_MS.length && latenciaMs > LIMITES_MS[i]) {
+            i++;
+        }
+        histograma.incrementAndGet(i);
+        if (latenciaMs > maximoMs) {
+            maximoMs = latenciaMs;
+        }
+
+        ultimaLatenciaMs = latenciaMs;
+        sondaEnviada = 0;
+    }
+
+    /**
+     * Escribe el histograma en el fichero de diagnóstico si ha habido
+     * muestras nuevas desde el último resumen.
+     */
+    private static synchronized void escribirResumen() {
+        long total = totalMuestras();
+        if (total == muestrasResumidas) {
+            return;
+        }
+        muestrasResumidas = total;
+        registrar(Level.INFO, "Latencia del EDT:\n" + formatearHistograma());
+    }
+
+    /**
+     * Escribe el resumen final y cierra el fichero de diagnóstico. Se
+     * ejecuta al apagarse la JVM.
+     */
+    private static void cerrar() {
+        escribirResumen();
+        FileHandler f = fichero;
+        if (f != null) {
+            fichero = null;
+            f.close();
+        }
+    }
+
+    /**
+     * Escribe un mensaje en el fichero de diagnóstico o, si no se ha
+     * podido abrir, en el registro de diagnóstico.
+     *
+     * @param nivel nivel del mensaje
+     * @param mensaje texto del mensaje
+     */
+    private static void registrar(Level nivel, String mensaje) {
+        FileHandler f = fichero;
+        if (f == null) {
+            diagnostico.log(nivel, mensaje);
+            return;
+        }
+
+        LogRecord registro = new LogRecord(nivel, mensaje);
+        registro.setLoggerName(diagnostico.getName());
+        registro.setSourceClassName(VigilanteEdt.class.getName());
+        // FileHandler vacía el búfer tras cada registro
+        f.publish(registro);
+    }
+
+    /**
+     * Devuelve un informe legible con el histograma de latencias y los
+     * últimos bloqueos detectados.
+     *
+     * @return informe de diagnóstico
+     */
+    public static String informe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Latencia del EDT (sonda cada ").append(PERIODO_SONDA_MS).append(" ms)\n");
+        sb.append(formatearHistograma());
+
+        List<Bloqueo> copia;
+        synchronized (bloqueos) {
+            copia = new ArrayList<>(bloqueos);
+        }
+
+        sb.append("\nBloqueos de más de ").append(UMBRAL_BLOQUEO_MS).append(" ms: ")
+                .append(copia.size()).append(copia.isEmpty() ? "\n" : " (más recientes primero)\n");
+        for (int i = copia.size() - 1; i >= 0; i--) {
+            Bloqueo b = copia.get(i);
+            sb.append("\n[").append(b.inicio.format(FORMATO_HORA)).append("] ")
+                    .append(b.duracionMs < 0 ? "en curso" : b.duracionMs + " ms").append('\n')
+                    .append(b.pila);
+        }
+
+        sb.append("\nFichero: ").append(FICHERO.toAbsolutePath().toString().replace("%g", "0")).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Formatea el histograma de latencias.
+     *
+     * @return una línea por intervalo con su número de muestras
+     */
+    private static String formatearHistograma() {
+        StringBuilder sb = new StringBuilder();
+        long total = totalMuestras();
+        long anterior = 0;
+
+        for (int i = 0; i < histograma.length(); i++) {
+            long n = histograma.get(i);
+            String intervalo = i < LIMITES_MS.length
+                    ? anterior + "-" + LIMITES_MS[i] + " ms"
+                    : "> " + anterior + " ms";
+            sb.append(String.format("  %-14s %8d  %5.1f%%%n",
+                    intervalo, n, total == 0 ? 0.0 : 100.0 * n / total));
+            if (i < LIMITES_MS.length) {
+                anterior = LIMITES_MS[i];
+            }
+        }
+        sb.append("  muestras: ").append(total).append(", máximo: ").append(maximoMs).append(" ms\n");
+        return sb.toString();
+    }
+
+    /**
+     * Suma las muestras de todos los intervalos del histograma.
+     *
+     * @return número total de muestras
+     */
+    private static long totalMuestras() {
+        long total = 0;
+        for (int i = 0; i < histograma.length(); i++) {
+            total += histograma.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Formatea una pila de llamadas.
+     *
+     * @param pila elementos de la pila
+     * @return una línea por elemento
+     */
+    private static String formatearPila(StackTraceElement[] pila) {
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement e : pila) {
+            sb.append("    at ").append(e).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Abre los ficheros rotativos de diagnóstico.
+     */
+    private static void configurarFichero() {
+        try {
+            Files.createDirectories(FICHERO.getParent());
+            FileHandler f = new FileHandler(FICHERO.toString(), TAMANIO_FICHERO, FICHEROS, true);
+            f.setFormatter(new SimpleFormatter());
+            fichero = f;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se puede abrir el fichero de diagnóstico del EDT", e);
+        }
+    }
+}
@@ -4,11 +4,10 @@
  */
 package com.yhon.dam.proyectodamnavidad.vista;
 
-import com.yhon.dam.proyectodamnavidad.dao.UsuarioDAO;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.yhon.dam.proyectodamnavidad.servicio.UsuarioServicio;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
-import com.yhon.dam.proyectodamnavidad.util.PasswordUtil;
 import javax.swing.JOptionPane;
 
 /**
@@ -241,50 +240,48 @@ public class CambiarContrasenaVista extends javax.swing.JFrame implements I18nAw
             return;
         }
 
-        // 🔐 Comprobar contraseña antigua
-        if (!PasswordUtil.checkPassword(
-                new String(oldPass),
-                usuarioLogueado.getPasswordHash()
-        )) {
+        // 🔐 Comprobar la contraseña antigua y guardar el hash de la nueva
+        // (BCrypt y base de datos, en segundo plano)
+        String actual = new String(oldPass);
+        String nueva = new String(newPass);
+
+        // 🧹 Limpiar arrays por seguridad
+        java.util.Arrays.fill(oldPass, '\0');
+        java.util.Arrays.fill(newPass, '\0');
+
+        IndicadorOcupado.esperar(this, UsuarioServicio.cambiarPassword(usuarioLogueado, actual, nueva), newHash -> {
+
+            if (newHash == null) {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("password.oldIncorrect"),
+                        I18n.t("common.error"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.ERROR_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+                return;
+            }
+
+            // 🔄 Actualizar objeto en memoria
+            usuarioLogueado.setPasswordHash(newHash);
 
             JOptionPane.showOptionDialog(
                     this,
-                    I18n.t("password.oldIncorrect"),
-                    I18n.t("common.error"),
+                    I18n.t("password.changed"),
+                    I18n.t("common.success"),
                     JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.ERROR_MESSAGE,
+                    JOptionPane.INFORMATION_MESSAGE,
                     null,
                     okOption,
                     okOption[0]
             );
-            return;
-        }
-
-        // 🔒 Generar hash nueva contraseña
-        String newHash = PasswordUtil.hashPassword(new String(newPass));
 
-        // 💾 Guardar en BD
-        UsuarioDAO.actualizarPassword(usuarioLogueado, newHash);
-
-        // 🔄 Actualizar objeto en memoria
-        usuarioLogueado.setPasswordHash(newHash);
-
-        JOptionPane.showOptionDialog(
-                this,
-                I18n.t("password.changed"),
-                I18n.t("common.success"),
-                JOptionPane.DEFAULT_OPTION,
-                JOptionPane.INFORMATION_MESSAGE,
-                null,
-                okOption,
-                okOption[0]
-        );
-
-        // 🧹 Limpiar arrays por seguridad
-        java.util.Arrays.fill(oldPass, '\0');
-        java.util.Arrays.fill(newPass, '\0');
-
-        this.dispose();
+            this.dispose();
+        });
     }//GEN-LAST:event_jButton1ActionPerformed
     
     /**
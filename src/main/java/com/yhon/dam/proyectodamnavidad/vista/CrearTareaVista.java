@@ -6,15 +6,15 @@ package com.yhon.dam.proyectodamnavidad.vista;
 
 import com.toedter.calendar.JDateChooser;
 import com.yhon.dam.proyectodamnavidad.MainFrame;
-import com.yhon.dam.proyectodamnavidad.dao.TareaDAO;
 import com.yhon.dam.proyectodamnavidad.modelo.Tarea;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.yhon.dam.proyectodamnavidad.servicio.TareaServicio;
+import com.yhon.dam.proyectodamnavidad.servicio.UsuarioServicio;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
 import java.awt.event.KeyEvent;
 import java.time.ZoneId;
 import java.util.Date;
-import java.util.List;
 import javax.swing.JOptionPane;
 import javax.swing.SpinnerNumberModel;
 
@@ -63,10 +63,11 @@ public class CrearTareaVista extends javax.swing.JFrame implements I18nAware {
      * Carga los usuarios disponibles como responsables de la tarea.
      */
     private void cargarUsuarios() {
-        List<Usuario> usuarios = TareaDAO.listarUsuarios();
-        for (Usuario u : usuarios) {
-            comboResponsable.addItem(u);
-        }
+        IndicadorOcupado.esperar(this, UsuarioServicio.listarUsuarios(), usuarios -> {
+            for (Usuario u : usuarios) {
+                comboResponsable.addItem(u);
+            }
+        });
     }
 
     /**
@@ -304,35 +305,37 @@ public class CrearTareaVista extends javax.swing.JFrame implements I18nAware {
 
         Object[] okOption = {I18n.t("common.ok")};
 
-        if (TareaDAO.guardar(tarea)) {
-
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("task.create.success"),
-                    I18n.t("common.success"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.INFORMATION_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-
-            vistaPadre.cargarTareas(); // refrescar tabla
-            this.dispose(); // cerrar ventana
-
-        } else {
-
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("task.create.error"),
-                    I18n.t("common.error"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.ERROR_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-        }
+        IndicadorOcupado.esperar(this, TareaServicio.guardar(tarea), ok -> {
+            if (ok) {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("task.create.success"),
+                        I18n.t("common.success"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.INFORMATION_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+
+                vistaPadre.cargarTareas(); // refrescar tabla
+                this.dispose(); // cerrar ventana
+
+            } else {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("task.create.error"),
+                        I18n.t("common.error"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.ERROR_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+            }
+        });
 
     }//GEN-LAST:event_jButton1ActionPerformed
     
@@ -0,0 +1,184 @@
+package com.yhon.dam.proyectodamnavidad.vista;
+
+import com.yhon.dam.proyectodamnavidad.util.I18n;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyAdapter;
+import java.awt.event.MouseAdapter;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JComponent;
+import javax.swing.JOptionPane;
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Indicador de ocupado por ventana para las llamadas a los servicios.
+ * <p>
+ * Mientras una ventana tiene alguna llamada en curso, se muestra sobre
+ * ella un panel transparente (glass pane) con el cursor de espera que
+ * absorbe el ratón y el teclado, de modo que no se puede repetir la
+ * acción ni lanzar otra a la vez. El resto de ventanas siguen
+ * respondiendo.
+ * </p>
+ *
+ * Todos los métodos deben llamarse desde el hilo de eventos de Swing.
+ *
+ * @author yhon
+ */
+public final class IndicadorOcupado {
+
+    private static final Logger logger = Logger.getLogger(IndicadorOcupado.class.getName());
+
+    /** Clave (client property del JRootPane) con las llamadas en curso */
+    private static final String LLAMADAS = "indicadorOcupado.llamadas";
+
+    /** Clave con el componente que tenía el foco antes de bloquear */
+    private static final String FOCO_ANTERIOR = "indicadorOcupado.foco";
+
+    /** Clave con el glass pane original de la ventana */
+    private static final String GLASS_ORIGINAL = "indicadorOcupado.glass";
+
+    private IndicadorOcupado() {
+    }
+
+    /**
+     * Espera a una llamada a un servicio mostrando la ventana ocupada y
+     * entrega el resultado en el hilo de eventos de Swing.
+     * <p>
+     * Si la llamada falla se registra el error y se muestra un aviso
+     * genérico; {@code alTerminar} no se ejecuta.
+     * </p>
+     *
+     * @param <T> tipo del resultado
+     * @param ventana componente de la ventana que queda ocupada
+     * @param llamada llamada en curso
+     * @param alTerminar acción con el resultado, en el hilo de eventos
+     */
+    public static <T> void esperar(Component ventana, CompletableFuture<T> llamada, Consumer<? super T> alTerminar) {
+        JRootPane raiz = SwingUtilities.getRootPane(ventana);
+        bloquear(raiz);
+
+        llamada.whenComplete((resultado, error) -> SwingUtilities.invokeLater(() -> {
+            desbloquear(raiz);
+
+            if (error == null) {
+                alTerminar.accept(resultado);
+                return;
+            }
+
+            Throwable causa = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (causa instanceof CancellationException) {
+                return;
+            }
+
+            logger.log(Level.SEVERE, "Error en una llamada en segundo plano", causa);
+            Object[] okOption = {I18n.t("common.ok")};
+            JOptionPane.showOptionDialog(
+                    raiz,
+                    I18n.t("common.unexpectedError"),
+                    I18n.t("common.error"),
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.ERROR_MESSAGE,
+                    null,
+                    okOption,
+                    okOption[0]
+            );
+        }));
+    }
+
+    /**
+     * Ejecuta una acción en el hilo de eventos cuando termina una llamada,
+     * sin bloquear la ventana. Para cargas secundarias (por ejemplo, una
+     * descripción para un tooltip) cuyo fallo no debe interrumpir al
+     * usuario: los errores solo se registran.
+     *
+     * @param <T> tipo del resultado
+     * @param llamada llamada en curso
+     * @param alTerminar acción con el resultado, en el hilo de eventos
+     */
+    public static <T> void alTerminar(CompletableFuture<T> llamada, Consumer<? super T> alTerminar) {
+        llamada.whenComplete((resultado, error) -> {
+            if (error != null) {
+                logger.log(Level.WARNING, "Error en una carga en segundo plano", error);
+                return;
+            }
+            SwingUtilities.invokeLater(() -> alTerminar.accept(resultado));
+        });
+    }
+
+    /**
+     * Marca la ventana como ocupada; la primera llamada instala el glass
+     * pane de espera.
+     *
+     * @param raiz raíz de la ventana ({@code null} si el componente aún
+     * no está en ninguna)
+     */
+    private static void bloquear(JRootPane raiz) {
+        if (raiz == null) {
+            return;
+        }
+
+        Integer llamadas = (Integer) raiz.getClientProperty(LLAMADAS);
+        int n = llamadas == null ? 0 : llamadas;
+        raiz.putClientProperty(LLAMADAS, n + 1);
+        if (n > 0) {
+            return;
+        }
+
+        JComponent bloqueo = new JComponent() {
+        };
+        bloqueo.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        bloqueo.addMouseListener(new MouseAdapter() {
+        });
+        bloqueo.addMouseMotionListener(new MouseAdapter() {
+        });
+        bloqueo.addKeyListener(new KeyAdapter() {
+        });
+        bloqueo.setFocusTraversalKeysEnabled(false);
+        bloqueo.setFocusable(true);
+
+        raiz.putClientProperty(GLASS_ORIGINAL, raiz.getGlassPane());
+        raiz.putClientProperty(FOCO_ANTERIOR,
+                KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner());
+        raiz.setGlassPane(bloqueo);
+        bloqueo.setVisible(true);
+        bloqueo.requestFocusInWindow();
+    }
+
+    /**
+     * Termina una llamada de la ventana; la última restaura el glass pane
+     * y el foco.
+     *
+     * @param raiz raíz de la ventana
+     */
+    private static void desbloquear(JRootPane raiz) {
+        if (raiz == null) {
+            return;
+        }
+
+        int n = (Integer) raiz.getClientProperty(LLAMADAS) - 1;
+        raiz.putClientProperty(LLAMADAS, n);
+        if (n > 0) {
+            return;
+        }
+
+        Component original = (Component) raiz.getClientProperty(GLASS_ORIGINAL);
+        raiz.getGlassPane().setVisible(false);
+        raiz.setGlassPane(original);
+        raiz.putClientProperty(GLASS_ORIGINAL, null);
+
+        Component foco = (Component) raiz.getClientProperty(FOCO_ANTERIOR);
+        raiz.putClientProperty(FOCO_ANTERIOR, null);
+        if (foco != null && foco.isShowing()) {
+            foco.requestFocusInWindow();
+        }
+    }
+}
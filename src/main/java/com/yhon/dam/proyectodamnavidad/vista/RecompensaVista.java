@@ -5,10 +5,10 @@
 package com.yhon.dam.proyectodamnavidad.vista;
 
 import com.yhon.dam.proyectodamnavidad.MainFrame;
-import com.yhon.dam.proyectodamnavidad.dao.RecompensaDAO;
-import com.yhon.dam.proyectodamnavidad.dao.TareaDAO;
 import com.yhon.dam.proyectodamnavidad.modelo.Recompensa;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.yhon.dam.proyectodamnavidad.servicio.RecompensaServicio;
+import com.yhon.dam.proyectodamnavidad.servicio.TareaServicio;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
 import java.awt.event.KeyEvent;
@@ -270,37 +270,38 @@ public class RecompensaVista extends javax.swing.JFrame implements I18nAware {
         }
 
         // 3️⃣ Intentar canjear
-        boolean ok = TareaDAO.canjearRecompensa(usuarioLogueado, r);
-
-        if (ok) {
-
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("reward.success"),
-                    I18n.t("common.success"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.INFORMATION_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-
-            vistaPadre.refrescarUsuario();
-            dispose();
-
-        } else {
-
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("reward.notEnoughPoints"),
-                    I18n.t("common.error"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.ERROR_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-        }
+        IndicadorOcupado.esperar(this, TareaServicio.canjearRecompensa(usuarioLogueado, r), ok -> {
+
+            if (ok) {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("reward.success"),
+                        I18n.t("common.success"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.INFORMATION_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+
+                vistaPadre.refrescarUsuario();
+                dispose();
+
+            } else {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("reward.notEnoughPoints"),
+                        I18n.t("common.error"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.ERROR_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+            }
+        });
     }//GEN-LAST:event_btnCanjearActionPerformed
     
      /**
@@ -406,16 +407,18 @@ public class RecompensaVista extends javax.swing.JFrame implements I18nAware {
     private void cargarRecompensas() {
         modeloTabla.setRowCount(0);
 
-        for (Recompensa r : RecompensaDAO.listar()) {
-            // Traducir el nombre de la recompensa antes de agregarlo a la tabla
-            String nombreTraducido = I18n.getRewardTranslation(r.getNombre());
+        IndicadorOcupado.esperar(this, RecompensaServicio.listar(), recompensas -> {
+            for (Recompensa r : recompensas) {
+                // Traducir el nombre de la recompensa antes de agregarlo a la tabla
+                String nombreTraducido = I18n.getRewardTranslation(r.getNombre());
 
-            modeloTabla.addRow(new Object[]{
-                r, // Objeto completo
-                nombreTraducido, // Nombre traducido
-                r.getCostePuntos() // Coste en puntos
-            });
-        }
+                modeloTabla.addRow(new Object[]{
+                    r, // Objeto completo
+                    nombreTraducido, // Nombre traducido
+                    r.getCostePuntos() // Coste en puntos
+                });
+            }
+        });
     }
     
      /**
@@ -5,9 +5,9 @@
 package com.yhon.dam.proyectodamnavidad.vista;
 
 import com.yhon.dam.proyectodamnavidad.controller.RecuperarControlador;
-import com.yhon.dam.proyectodamnavidad.controller.RecuperarControlador.Resultado;
 import com.yhon.dam.proyectodamnavidad.dao.UsuarioDAO;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import com.yhon.dam.proyectodamnavidad.servicio.UsuarioServicio;
 import com.yhon.dam.proyectodamnavidad.util.EmailUtil;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
@@ -204,50 +204,49 @@ public class RecuperarPasswordVista extends javax.swing.JFrame implements I18nAw
             return;
         }
 
-        RecuperarControlador controller = new RecuperarControlador();
-        Resultado r = controller.recuperar(email);
+        IndicadorOcupado.esperar(this, UsuarioServicio.recuperar(email), r -> {
 
-        switch (r) {
+            switch (r) {
 
-            case OK:
-            case EMAIL_NO_EXISTE: {
+                case OK:
+                case EMAIL_NO_EXISTE: {
 
-                Object[] options = {I18n.t("common.ok")};
+                    Object[] options = {I18n.t("common.ok")};
 
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("recover.sent"),
-                        I18n.t("common.info"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.INFORMATION_MESSAGE,
-                        null,
-                        options,
-                        options[0]
-                );
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("recover.sent"),
+                            I18n.t("common.info"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.INFORMATION_MESSAGE,
+                            null,
+                            options,
+                            options[0]
+                    );
 
-                this.dispose();
-                break;
-            }
+                    this.dispose();
+                    break;
+                }
 
-            case ERROR: {
+                case ERROR: {
 
-                Object[] options = {I18n.t("common.ok")};
+                    Object[] options = {I18n.t("common.ok")};
 
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("recover.error"),
-                        I18n.t("common.error"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.ERROR_MESSAGE,
-                        null,
-                        options,
-                        options[0]
-                );
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("recover.error"),
+                            I18n.t("common.error"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.ERROR_MESSAGE,
+                            null,
+                            options,
+                            options[0]
+                    );
 
-                break;
+                    break;
+                }
             }
-        }
-
+        });
     }//GEN-LAST:event_btnRecuperarActionPerformed
     
     /**
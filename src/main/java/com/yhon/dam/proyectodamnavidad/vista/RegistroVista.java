@@ -4,9 +4,8 @@
  */
 package com.yhon.dam.proyectodamnavidad.vista;
 
-import com.yhon.dam.proyectodamnavidad.controller.RegistroControlador;
-import com.yhon.dam.proyectodamnavidad.controller.RegistroControlador.RegistroResult;
 import com.yhon.dam.proyectodamnavidad.modelo.Rol;
+import com.yhon.dam.proyectodamnavidad.servicio.UsuarioServicio;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
 import java.awt.event.KeyEvent;
@@ -287,69 +286,69 @@ public class RegistroVista extends javax.swing.JFrame implements I18nAware {
             return;
         }
 
-        RegistroControlador controller = new RegistroControlador();
-        RegistroResult result = controller.registrar(
+        IndicadorOcupado.esperar(this, UsuarioServicio.registrar(
                 username,
                 password,
                 email,
                 rolSeleccionado
-        );
+        ), result -> {
+
+            switch (result) {
+
+                case CAMPOS_VACIOS:
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("register.emptyFields"),
+                            I18n.t("common.error"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.WARNING_MESSAGE,
+                            null,
+                            okOption,
+                            okOption[0]
+                    );
+                    break;
 
-        switch (result) {
-
-            case CAMPOS_VACIOS:
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("register.emptyFields"),
-                        I18n.t("common.error"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.WARNING_MESSAGE,
-                        null,
-                        okOption,
-                        okOption[0]
-                );
-                break;
-
-            case EMAIL_EXISTE:
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("register.emailExists"),
-                        I18n.t("common.error"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.ERROR_MESSAGE,
-                        null,
-                        okOption,
-                        okOption[0]
-                );
-                break;
-
-            case OK:
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("register.success"),
-                        I18n.t("common.success"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.INFORMATION_MESSAGE,
-                        null,
-                        okOption,
-                        okOption[0]
-                );
-                this.dispose();
-                break;
-
-            case ERROR:
-                JOptionPane.showOptionDialog(
-                        this,
-                        I18n.t("register.error"),
-                        I18n.t("common.error"),
-                        JOptionPane.DEFAULT_OPTION,
-                        JOptionPane.ERROR_MESSAGE,
-                        null,
-                        okOption,
-                        okOption[0]
-                );
-                break;
-        }
+                case EMAIL_EXISTE:
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("register.emailExists"),
+                            I18n.t("common.error"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.ERROR_MESSAGE,
+                            null,
+                            okOption,
+                            okOption[0]
+                    );
+                    break;
+
+                case OK:
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("register.success"),
+                            I18n.t("common.success"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.INFORMATION_MESSAGE,
+                            null,
+                            okOption,
+                            okOption[0]
+                    );
+                    this.dispose();
+                    break;
+
+                case ERROR:
+                    JOptionPane.showOptionDialog(
+                            this,
+                            I18n.t("register.error"),
+                            I18n.t("common.error"),
+                            JOptionPane.DEFAULT_OPTION,
+                            JOptionPane.ERROR_MESSAGE,
+                            null,
+                            okOption,
+                            okOption[0]
+                    );
+                    break;
+            }
+        });
     }//GEN-LAST:event_jButton1ActionPerformed
 
     /**
@@ -0,0 +1,79 @@
+package com.yhon.dam.proyectodamnavidad.vista;
+
+import com.yhon.dam.proyectodamnavidad.util.I18n;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Frame;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JWindow;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * Ventana de arranque (splash) de la aplicación.
+ * <p>
+ * Se muestra mientras Hibernate se inicializa en segundo plano e
+ * informa de la fase en curso (detección de la base de datos,
+ * construcción del metamodelo, carga de datos iniciales).
+ * </p>
+ *
+ * Sus métodos pueden llamarse desde cualquier hilo: los cambios se
+ * aplican siempre en el hilo de eventos de Swing.
+ *
+ * @author yhon
+ */
+public class SplashVista extends JWindow {
+
+    /** Texto de la fase actual del arranque */
+    private final JLabel lblProgreso;
+
+    /**
+     * Crea la ventana de arranque.
+     *
+     * @param owner ventana sobre la que se muestra (puede ser {@code null})
+     */
+    public SplashVista(Frame owner) {
+        super(owner);
+
+        JLabel lblTitulo = new JLabel(I18n.t("login.title"), SwingConstants.CENTER);
+        lblTitulo.setFont(new Font("Liberation Sans", Font.BOLD, 15));
+
+        lblProgreso = new JLabel(I18n.t("splash.start"), SwingConstants.CENTER);
+
+        JProgressBar barra = new JProgressBar();
+        barra.setIndeterminate(true);
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Color.GRAY),
+                BorderFactory.createEmptyBorder(16, 24, 16, 24)
+        ));
+        panel.add(lblTitulo, BorderLayout.NORTH);
+        panel.add(lblProgreso, BorderLayout.CENTER);
+        panel.add(barra, BorderLayout.SOUTH);
+
+        setContentPane(panel);
+        setSize(340, 120);
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Muestra el texto de la fase actual del arranque.
+     *
+     * @param texto descripción de la fase
+     */
+    public void mostrarProgreso(String texto) {
+        SwingUtilities.invokeLater(() -> lblProgreso.setText(texto));
+    }
+
+    /**
+     * Cierra la ventana de arranque.
+     */
+    public void cerrar() {
+        SwingUtilities.invokeLater(this::dispose);
+    }
+}
@@ -0,0 +1,751 @@
+package com.yhon.dam.proyectodamnavidad.vista;
+
+import com.yhon.dam.proyectodamnavidad.dao.TareaDAO;
+import com.yhon.dam.proyectodamnavidad.modelo.CambiosTareas;
+import com.yhon.dam.proyectodamnavidad.modelo.CursorTarea;
+import com.yhon.dam.proyectodamnavidad.modelo.TareaResumen;
+import com.yhon.dam.proyectodamnavidad.util.I18n;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla virtual para las tareas de un responsable.
+ * <p>
+ * No guarda todas las filas: divide el listado en bloques de
+ * {@value #TAMANIO_BLOQUE} filas y solo carga, en segundo plano, los
+ * bloques que la tabla pide al pintarse, es decir, los visibles. Los
+ * bloques cargados se guardan en una caché LRU de
+ * {@value #MAX_BLOQUES} bloques, por lo que la memoria usada no depende
+ * del número total de tareas.
+ * </p>
+ *
+ * <p>
+ * Cada bloque se pide con la paginación por clave de
+ * {@link TareaDAO#listarPagina}, usando como cursor la última fila del
+ * bloque anterior o la primera del siguiente. Si ninguno de los dos se
+ * conoce (por ejemplo, al arrastrar la barra de desplazamiento hasta el
+ * final) se recurre a {@link TareaDAO#listarPaginaPorPosicion}.
+ * </p>
+ *
+ * <p>
+ * Tras una operación sobre las tareas, {@link #refrescar()} pide solo
+ * los cambios desde el último refresco ({@link TareaDAO#cambiosDesde})
+ * y los aplica como inserciones, actualizaciones y borrados de filas
+ * sueltas, de modo que la tabla conserva la selección y el
+ * desplazamiento. Los bloques en caché se desplazan en memoria; las
+ * filas que entran en ellos desde bloques no cargados quedan como
+ * huecos ({@code null}) y el bloque se vuelve a pedir cuando se pintan.
+ * </p>
+ *
+ * <p>
+ * Cada refresco vuelve a leer los últimos {@link #MARGEN_REFRESCO} del
+ * anterior, para recoger los cambios de transacciones que confirmaron
+ * después de él con una marca de tiempo anterior. Los cambios repetidos
+ * se reconocen por la versión de la fila y no se vuelven a aplicar.
+ * </p>
+ *
+ * Mientras un bloque se está cargando, sus celdas aparecen vacías.
+ * Todos los métodos deben llamarse desde el hilo de eventos de Swing.
+ *
+ * @author yhon
+ */
+public class TareasTableModel extends AbstractTableModel {
+
+    /** Columna del nombre de la tarea */
+    public static final int COL_NOMBRE = 0;
+
+    /** Columna del extracto de la descripción */
+    public static final int COL_DESCRIPCION = 1;
+
+    /** Columna del usuario que asignó la tarea */
+    public static final int COL_ASIGNADO_POR = 2;
+
+    /** Columna del responsable */
+    public static final int COL_RESPONSABLE = 3;
+
+    /** Columna de la fecha de inicio */
+    public static final int COL_FECHA_INICIO = 4;
+
+    /** Columna de la fecha límite */
+    public static final int COL_FECHA_LIMITE = 5;
+
+    /** Columna del estado */
+    public static final int COL_ESTADO = 6;
+
+    /** Claves de traducción de las cabeceras, en orden de columna */
+    private static final String[] CABECERAS = {
+        "task.name",
+        "task.description",
+        "task.assignedBy",
+        "task.responsible",
+        "task.startDate",
+        "task.endDate",
+        "task.status"
+    };
+
+    /** Filas por bloque */
+    static final int TAMANIO_BLOQUE = 100;
+
+    /** Bloques que se mantienen en memoria */
+    static final int MAX_BLOQUES = 20;
+
+    /**
+     * Cambios a partir de los cuales sale más a cuenta recargar el
+     * listado que aplicarlos uno a uno.
+     */
+    static final int MAX_CAMBIOS = 200;
+
+    /**
+     * Tiempo que cada refresco vuelve a leer del anterior. Las
+     * transacciones que tardan más en confirmar pueden quedar fuera
+     * hasta la siguiente recarga completa.
+     */
+    static final Duration MARGEN_REFRESCO = Duration.ofSeconds(5);
+
+    /** Responsable cuyas tareas se muestran */
+    private final Long responsableId;
+
+    /** Estado por el que se filtra ({@code null} para todos) */
+    private final String estado;
+
+    /** Número total de filas */
+    private int filas;
+
+    /** Bloques cargados, en orden de uso (LRU) */
+    private final Map<Integer, List<TareaResumen>> bloques =
+            new LinkedHashMap<>(MAX_BLOQUES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<TareaResumen>> eldest) {
+                    return size() > MAX_BLOQUES;
+                }
+            };
+
+    /**
+     * Primera y última fila de cada bloque ya visto. Se conservan
+     * aunque el bloque salga de la caché, para poder volver a pedirlo
+     * (o pedir sus vecinos) con un cursor. Ocupan dos cursores por
+     * bloque.
+     */
+    private final Map<Integer, CursorTarea> inicioBloque = new HashMap<>();
+    private final Map<Integer, CursorTarea> finBloque = new HashMap<>();
+
+    /** Bloques con una carga en curso */
+    private final Set<Integer> pendientes = new HashSet<>();
+
+    /** Bloques cuya carga ha fallado; no se reintentan hasta la siguiente recarga */
+    private final Set<Integer> fallidos = new HashSet<>();
+
+    /**
+     * Versión de las posiciones de las filas. Cambia en cada recarga y
+     * en cada inserción o borrado, para descartar las cargas de bloques
+     * lanzadas antes.
+     */
+    private int generacion;
+
+    /** Número de recargas completas, para descartar recuentos y refrescos antiguos */
+    private int recargas;
+
+    /** Indica si hay una recarga completa en curso */
+    private boolean recargando;
+
+    /** Indica si hay un refresco incremental en curso */
+    private boolean refrescando;
+
+    /** Indica si se ha pedido otro refresco mientras había uno en curso */
+    private boolean refrescoPendiente;
+
+    /** Momento (según la base de datos) del último refresco */
+    private LocalDateTime desde;
+
+    /**
+     * Momento (según la base de datos) de la última recarga completa.
+     * Los refrescos no leen antes de él: lo anterior ya lo trajo la
+     * recarga.
+     */
+    private LocalDateTime recargadoEn;
+
+    /**
+     * Último estado aplicado de las tareas que han cambiado dentro del
+     * margen de los refrescos ({@code null} si la tarea salió de la
+     * lista), para reconocer los cambios que se vuelven a leer.
+     */
+    private final Map<Long, TareaResumen> recientes = new HashMap<>();
+
+    /** Momento del refresco que aplicó cada entrada de {@link #recientes} */
+    private final Map<Long, LocalDateTime> recientesHasta = new HashMap<>();
+
+    /**
+     * Crea el modelo y lanza la primera carga.
+     *
+     * @param responsableId responsable cuyas tareas se muestran
+     * @param estado estado por el que se filtra ({@code null} para todos)
+     */
+    public TareasTableModel(Long responsableId, String estado) {
+        this.responsableId = responsableId;
+        this.estado = estado;
+        recargar();
+    }
+
+    /**
+     * Descarta los datos cargados y vuelve a contar y cargar las filas.
+     * <p>
+     * La tabla queda vacía hasta que llega el recuento.
+     * </p>
+     */
+    public final void recargar() {
+        int recarga = ++recargas;
+        recargando = true;
+        bloques.clear();
+        inicioBloque.clear();
+        finBloque.clear();
+        recientes.clear();
+        recientesHasta.clear();
+        invalidarCargas();
+
+        new SwingWorker<Object[], Void>() {
+            @Override
+            protected Object[] doInBackground() {
+                LocalDateTime inicio = TareaDAO.ahora();
+                int total = TareaDAO.contarPorResponsable(responsableId, estado);
+                return new Object[]{inicio, total};
+            }
+
+            @Override
+            protected void done() {
+                if (recarga != recargas) {
+                    return;
+                }
+                recargando = false;
+                try {
+                    Object[] resultado = get();
+                    desde = (LocalDateTime) resultado[0];
+                    recargadoEn = desde;
+                    filas = (Integer) resultado[1];
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    desde = null;
+                    recargadoEn = null;
+                    filas = 0;
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    /**
+     * Aplica los cambios en las tareas desde el último refresco.
+     * <p>
+     * Se consulta en segundo plano y solo se leen las filas que han
+     * cambiado. Si los cambios son demasiados, o la lista está filtrada
+     * por estado (no se sabe el estado anterior de las filas no
+     * cargadas), se recarga la lista completa.
+     * </p>
+     */
+    public void refrescar() {
+        if (recargando) {
+            return; // la recarga ya traerá los datos actuales
+        }
+        if (refrescando) {
+            refrescoPendiente = true;
+            return;
+        }
+        if (estado != null || desde == null) {
+            recargar();
+            return;
+        }
+
+        int recarga = recargas;
+        LocalDateTime inicio = desde.minus(MARGEN_REFRESCO);
+        if (inicio.isBefore(recargadoEn)) {
+            inicio = recargadoEn;
+        }
+        olvidarRecientes(inicio);
+        LocalDateTime inicioConsulta = inicio;
+        List<Long> conocidas = new ArrayList<>();
+        for (Map.Entry<Long, TareaResumen> e : recientes.entrySet()) {
+            if (e.getValue() != null) {
+                conocidas.add(e.getKey());
+            }
+        }
+        refrescando = true;
+
+        new SwingWorker<CambiosTareas, Void>() {
+            @Override
+            protected CambiosTareas doInBackground() {
+                return TareaDAO.cambiosDesde(responsableId, inicioConsulta, conocidas, MAX_CAMBIOS);
+            }
+
+            @Override
+            protected void done() {
+                refrescando = false;
+                if (recarga != recargas) {
+                    return;
+                }
+
+                CambiosTareas cambios;
+                try {
+                    cambios = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    cambios = null;
+                }
+
+                if (cambios == null || !aplicar(cambios)) {
+                    recargar();
+                    return;
+                }
+                desde = cambios.getHasta();
+
+                if (refrescoPendiente) {
+                    refrescoPendiente = false;
+                    refrescar();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Devuelve la tarea de una fila.
+     *
+     * @param fila índice de la fila
+     * @return tarea o {@code null} si su bloque aún no se ha cargado
+     */
+    public TareaResumen getTarea(int fila) {
+        if (fila < 0 || fila >= filas) {
+            return null;
+        }
+
+        int bloque = fila / TAMANIO_BLOQUE;
+        List<TareaResumen> datos = bloques.get(bloque);
+        if (datos == null) {
+            cargarBloque(bloque);
+            return null;
+        }
+
+        int posicion = fila % TAMANIO_BLOQUE;
+        if (posicion >= datos.size()) {
+            return null;
+        }
+
+        TareaResumen tarea = datos.get(posicion);
+        if (tarea == null) {
+            // Hueco dejado al desplazar filas: se vuelve a pedir el bloque
+            cargarBloque(bloque);
+        }
+        return tarea;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return CABECERAS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return I18n.t(CABECERAS[column]);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        TareaResumen t = getTarea(rowIndex);
+        if (t == null) {
+            return null;
+        }
+
+        return switch (columnIndex) {
+            case COL_NOMBRE -> t.getNombre();
+            case COL_DESCRIPCION -> t.getExtractoDescripcion();
+            case COL_ASIGNADO_POR -> t.getAsignadoPor();
+            case COL_RESPONSABLE -> t.getResponsable();
+            case COL_FECHA_INICIO -> t.getFechaInicio();
+            case COL_FECHA_LIMITE -> t.getFechaLimite();
+            case COL_ESTADO -> t.getEstado();
+            default -> null;
+        };
+    }
+
+    /**
+     * Aplica un conjunto de cambios como eventos de filas sueltas.
+     * <p>
+     * Primero se borran las filas que han salido de la lista, de la
+     * última a la primera, y después se insertan las nuevas, de la
+     * primera a la última, de modo que cada posición es válida en el
+     * momento de aplicarla. Por último se actualizan en su sitio las
+     * filas modificadas que están en caché.
+     * </p>
+     *
+     * <p>
+     * Como los refrescos se solapan, pueden llegar cambios ya aplicados:
+     * las filas con la misma versión que la que ya se tiene (en caché o
+     * en {@link #recientes}) y las salidas de tareas que ya salieron se
+     * ignoran.
+     * </p>
+     *
+     * @param cambios cambios desde el último refresco
+     * @return {@code false} si los cambios no encajan con los datos
+     * cargados y hay que recargar
+     */
+    private boolean aplicar(CambiosTareas cambios) {
+        if (cambios.isVacio()) {
+            return true;
+        }
+
+        List<CursorTarea> salidas = new ArrayList<>();
+        for (CursorTarea c : cambios.getSalidas()) {
+            boolean yaSalida = recientes.containsKey(c.getId()) && recientes.get(c.getId()) == null;
+            if (!yaSalida && !contieneId(salidas, c.getId())) {
+                salidas.add(c);
+            }
+        }
+        List<TareaResumen> nuevas = new ArrayList<>();
+        List<TareaResumen> modificadas = new ArrayList<>();
+
+        for (TareaResumen t : cambios.getModificadas()) {
+            boolean nueva = cambios.getNuevas().contains(t.getId());
+            if (nueva && contieneId(salidas, t.getId())) {
+                nuevas.add(t); // ha salido y ha vuelto a entrar
+                continue;
+            }
+
+            int posicion = posicionEnCache(t.getId());
+            TareaResumen anterior = posicion != -1 ? getTarea(posicion) : recientes.get(t.getId());
+            if (anterior == null) {
+                if (nueva) {
+                    nuevas.add(t);
+                }
+            } else if (anterior.getVersion() != t.getVersion()) {
+                if (!CursorTarea.de(anterior).equals(CursorTarea.de(t))) {
+                    return false; // ha cambiado de posición en el orden
+                }
+                if (posicion != -1) {
+                    modificadas.add(t);
+                }
+            }
+        }
+
+        List<CursorTarea> claveNuevas = new ArrayList<>();
+        for (TareaResumen t : nuevas) {
+            claveNuevas.add(CursorTarea.de(t));
+        }
+
+        // Posición de cada salida en la lista antes de los cambios
+        Map<CursorTarea, Integer> posicionSalida = new HashMap<>();
+        for (CursorTarea c : salidas) {
+            int posicion = posicionEnCache(c.getId());
+            if (posicion == -1 && cambios.getNuevas().contains(c.getId())) {
+                return false; // ha salido y ha vuelto a entrar
+            }
+            if (posicion == -1) {
+                posicion = cambios.getAnteriores(c.getId())
+                        + contarAnteriores(salidas, c)
+                        - contarAnteriores(claveNuevas, c);
+            }
+            if (posicion < 0 || posicion >= filas) {
+                return false;
+            }
+            posicionSalida.put(c, posicion);
+        }
+
+        salidas.sort(Comparator.comparing(posicionSalida::get, Comparator.reverseOrder()));
+        for (CursorTarea c : salidas) {
+            eliminarFila(posicionSalida.get(c));
+        }
+
+        nuevas.sort(Comparator.comparing(CursorTarea::de));
+        for (TareaResumen t : nuevas) {
+            int posicion = cambios.getAnteriores(t.getId());
+            if (posicion > filas) {
+                return false;
+            }
+            insertarFila(posicion, t);
+        }
+
+        for (TareaResumen t : modificadas) {
+            int posicion = posicionEnCache(t.getId());
+            bloques.get(posicion / TAMANIO_BLOQUE).set(posicion % TAMANIO_BLOQUE, t);
+            fireTableRowsUpdated(posicion, posicion);
+        }
+
+        for (CursorTarea c : cambios.getSalidas()) {
+            recientes.put(c.getId(), null);
+            recientesHasta.put(c.getId(), cambios.getHasta());
+        }
+        for (TareaResumen t : cambios.getModificadas()) {
+            recientes.put(t.getId(), t);
+            recientesHasta.put(t.getId(), cambios.getHasta());
+        }
+        return true;
+    }
+
+    /**
+     * Olvida los cambios aplicados que ya no pueden volver a leerse,
+     * porque el refresco que los aplicó terminó antes de {@code inicio}.
+     *
+     * @param inicio momento desde el que leerá el siguiente refresco
+     */
+    private void olvidarRecientes(LocalDateTime inicio) {
+        recientesHasta.entrySet().removeIf(e -> {
+            if (e.getValue().isAfter(inicio)) {
+                return false;
+            }
+            recientes.remove(e.getKey());
+            return true;
+        });
+    }
+
+    /**
+     * Cuenta las claves de una lista que van antes que otra.
+     *
+     * @param claves claves
+     * @param clave clave de referencia
+     * @return número de claves anteriores
+     */
+    private static int contarAnteriores(List<CursorTarea> claves, CursorTarea clave) {
+        int n = 0;
+        for (CursorTarea c : claves) {
+            if (c.compareTo(clave) < 0) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Indica si una lista de claves contiene una tarea.
+     *
+     * @param claves claves
+     * @param tareaId id de la tarea
+     * @return {@code true} si alguna clave es de esa tarea
+     */
+    private static boolean contieneId(List<CursorTarea> claves, Long tareaId) {
+        for (CursorTarea c : claves) {
+            if (c.getId().equals(tareaId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Busca una tarea en los bloques en caché.
+     *
+     * @param tareaId id de la tarea
+     * @return posición de la fila o {@code -1} si no está en caché
+     */
+    private int posicionEnCache(Long tareaId) {
+        for (Map.Entry<Integer, List<TareaResumen>> e : bloques.entrySet()) {
+            List<TareaResumen> datos = e.getValue();
+            for (int i = 0; i < datos.size(); i++) {
+                TareaResumen t = datos.get(i);
+                if (t != null && t.getId().equals(tareaId)) {
+                    return e.getKey() * TAMANIO_BLOQUE + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserta una fila desplazando las siguientes.
+     * <p>
+     * En cada bloque en caché posterior entra por delante la última fila
+     * del bloque anterior (o un hueco si ese bloque no está cargado) y
+     * sale por detrás su última fila.
+     * </p>
+     *
+     * @param posicion posición de la nueva fila
+     * @param fila datos de la fila
+     */
+    private void insertarFila(int posicion, TareaResumen fila) {
+        filas++;
+        int primero = posicion / TAMANIO_BLOQUE;
+
+        TareaResumen arrastre = null;
+        int anterior = -1;
+        for (int b : bloquesDesde(primero)) {
+            List<TareaResumen> datos = bloques.get(b);
+            if (b == primero) {
+                datos.add(Math.min(posicion % TAMANIO_BLOQUE, datos.size()), fila);
+            } else {
+                datos.add(0, b == anterior + 1 ? arrastre : null);
+            }
+            arrastre = datos.size() > TAMANIO_BLOQUE ? datos.remove(TAMANIO_BLOQUE) : null;
+            anterior = datos.size() == TAMANIO_BLOQUE ? b : -1;
+        }
+
+        reiniciarCursores(primero);
+        fireTableRowsInserted(posicion, posicion);
+    }
+
+    /**
+     * Elimina una fila desplazando las siguientes.
+     * <p>
+     * Cada bloque en caché posterior cede su primera fila al bloque
+     * anterior; si el siguiente bloque no está cargado, el hueco que
+     * queda al final se marca con {@code null}.
+     * </p>
+     *
+     * @param posicion posición de la fila
+     */
+    private void eliminarFila(int posicion) {
+        filas--;
+        int primero = posicion / TAMANIO_BLOQUE;
+
+        for (int b : bloquesDesde(primero)) {
+            List<TareaResumen> datos = bloques.get(b);
+            int indice = b == primero ? posicion % TAMANIO_BLOQUE : 0;
+            if (indice < datos.size()) {
+                datos.remove(indice);
+            }
+
+            int esperadas = Math.max(0, Math.min(TAMANIO_BLOQUE, filas - b * TAMANIO_BLOQUE));
+            if (esperadas == 0) {
+                bloques.remove(b);
+                continue;
+            }
+            if (datos.size() < esperadas) {
+                List<TareaResumen> siguiente = bloques.get(b + 1);
+                datos.add(siguiente != null && !siguiente.isEmpty() ? siguiente.get(0) : null);
+            }
+        }
+
+        reiniciarCursores(primero);
+        fireTableRowsDeleted(posicion, posicion);
+    }
+
+    /**
+     * Devuelve los índices de los bloques en caché a partir de uno dado.
+     *
+     * @param primero primer bloque
+     * @return índices en orden ascendente
+     */
+    private List<Integer> bloquesDesde(int primero) {
+        List<Integer> indices = new ArrayList<>();
+        for (int b : bloques.keySet()) {
+            if (b >= primero) {
+                indices.add(b);
+            }
+        }
+        Collections.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Recalcula los cursores de los bloques desplazados por una
+     * inserción o un borrado y descarta las cargas en curso, que se
+     * pidieron con las posiciones anteriores.
+     *
+     * @param primero primer bloque desplazado
+     */
+    private void reiniciarCursores(int primero) {
+        inicioBloque.keySet().removeIf(b -> b >= primero);
+        finBloque.keySet().removeIf(b -> b >= primero);
+
+        for (int b : bloquesDesde(primero)) {
+            List<TareaResumen> datos = bloques.get(b);
+            if (!datos.isEmpty() && datos.get(0) != null) {
+                inicioBloque.put(b, CursorTarea.de(datos.get(0)));
+            }
+            if (datos.size() == TAMANIO_BLOQUE && datos.get(TAMANIO_BLOQUE - 1) != null) {
+                finBloque.put(b, CursorTarea.de(datos.get(TAMANIO_BLOQUE - 1)));
+            }
+        }
+        invalidarCargas();
+    }
+
+    /**
+     * Descarta las cargas de bloques en curso y los fallos anteriores.
+     */
+    private void invalidarCargas() {
+        generacion++;
+        pendientes.clear();
+        fallidos.clear();
+    }
+
+    /**
+     * Lanza en segundo plano la carga de un bloque si no está ya en curso.
+     * <p>
+     * Si el bloque ya estaba en caché (con huecos), sus datos se siguen
+     * mostrando hasta que llega la nueva versión.
+     * </p>
+     *
+     * @param bloque índice del bloque
+     */
+    private void cargarBloque(int bloque) {
+        if (fallidos.contains(bloque) || !pendientes.add(bloque)) {
+            return;
+        }
+
+        int gen = generacion;
+        CursorTarea anterior = finBloque.get(bloque - 1);
+        CursorTarea siguiente = inicioBloque.get(bloque + 1);
+
+        new SwingWorker<List<TareaResumen>, Void>() {
+            @Override
+            protected List<TareaResumen> doInBackground() {
+                if (bloque == 0) {
+                    return TareaDAO.listarPagina(responsableId, estado, null,
+                            TareaDAO.Direccion.SIGUIENTE, TAMANIO_BLOQUE);
+                }
+                if (anterior != null) {
+                    return TareaDAO.listarPagina(responsableId, estado, anterior,
+                            TareaDAO.Direccion.SIGUIENTE, TAMANIO_BLOQUE);
+                }
+                if (siguiente != null) {
+                    return TareaDAO.listarPagina(responsableId, estado, siguiente,
+                            TareaDAO.Direccion.ANTERIOR, TAMANIO_BLOQUE);
+                }
+                return TareaDAO.listarPaginaPorPosicion(responsableId, estado,
+                        bloque * TAMANIO_BLOQUE, TAMANIO_BLOQUE);
+            }
+
+            @Override
+            protected void done() {
+                if (gen != generacion) {
+                    return;
+                }
+                pendientes.remove(bloque);
+
+                List<TareaResumen> datos;
+                try {
+                    datos = new ArrayList<>(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    // No se reintenta en cada repintado; la siguiente
+                    // recarga lo volverá a pedir
+                    e.printStackTrace();
+                    fallidos.add(bloque);
+                    return;
+                }
+
+                bloques.put(bloque, datos);
+                if (!datos.isEmpty()) {
+                    inicioBloque.put(bloque, CursorTarea.de(datos.get(0)));
+                    finBloque.put(bloque, CursorTarea.de(datos.get(datos.size() - 1)));
+                }
+
+                int primera = bloque * TAMANIO_BLOQUE;
+                int ultima = Math.min(primera + TAMANIO_BLOQUE, filas) - 1;
+                if (primera <= ultima) {
+                    fireTableRowsUpdated(primera, ultima);
+                }
+            }
+        }.execute();
+    }
+}
@@ -5,21 +5,37 @@
 package com.yhon.dam.proyectodamnavidad.vista;
 
 import com.yhon.dam.proyectodamnavidad.MainFrame;
+import com.yhon.dam.proyectodamnavidad.dao.TareaDAO;
+import com.yhon.dam.proyectodamnavidad.dao.Transaccion;
+import com.yhon.dam.proyectodamnavidad.modelo.Rol;
+import com.yhon.dam.proyectodamnavidad.modelo.SolicitudCanje;
 import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
 import com.yhon.dam.proyectodamnavidad.modelo.Tarea;
-import com.yhon.dam.proyectodamnavidad.dao.TareaDAO;
-import com.yhon.dam.proyectodamnavidad.dao.UsuarioDAO;
+import com.yhon.dam.proyectodamnavidad.modelo.TareaResumen;
+import com.yhon.dam.proyectodamnavidad.servicio.RecompensaServicio;
+import com.yhon.dam.proyectodamnavidad.servicio.TareaServicio;
+import com.yhon.dam.proyectodamnavidad.servicio.UsuarioServicio;
 import com.yhon.dam.proyectodamnavidad.util.I18n;
 import com.yhon.dam.proyectodamnavidad.util.I18nAware;
+import com.yhon.dam.proyectodamnavidad.util.VigilanteEdt;
+import java.awt.Component;
+import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import javax.swing.AbstractAction;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
 import javax.swing.KeyStroke;
 
 /**
@@ -45,7 +61,11 @@ import javax.swing.KeyStroke;
 public class TareasVista extends javax.swing.JFrame implements I18nAware {
 
     private Long ultimaTareaFinalizadaId = null;
-    private int puntosUltimaTarea = 0;
+
+    /**
+     * Versión de la última tarea finalizada tras finalizarla
+     */
+    private long ultimaTareaFinalizadaVersion;
 
     /**
      * Usuario actualmente autenticado
@@ -55,30 +75,30 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
     /**
      * Modelo de la tabla de tareas
      */
-    private DefaultTableModel modeloTabla;
+    private TareasTableModel modeloTabla;
 
     /**
-     * Última tarea finalizada (para deshacer acción)
+     * Opción oculta del menú de ayuda con el diagnóstico del EDT
      */
-    private Tarea ultimaTareaFinalizada = null;
+    private JMenuItem menuDiagnostico;
 
     /**
-     * Puntos otorgados por la última tarea finalizada
+     * Opción del menú de sesión con las solicitudes de canje (padres y madres)
      */
+    private JMenuItem menuSolicitudes;
+
     /**
-     * Logger de la clase
+     * Última tarea finalizada (para deshacer acción)
      */
-    private static final java.util.logging.Logger logger = java.util.logging.Logger.getLogger(TareasVista.class.getName());
+    private Tarea ultimaTareaFinalizada = null;
 
     /**
-     * Índice de la columna que almacena el objeto Tarea
+     * Puntos otorgados por la última tarea finalizada
      */
-    private static final int COL_TAREA_OBJ = 0;
-
     /**
-     * Índice de la columna del checkbox de finalización
+     * Logger de la clase
      */
-    private static final int COLUMNA_CHECKBOX = 8;
+    private static final java.util.logging.Logger logger = java.util.logging.Logger.getLogger(TareasVista.class.getName());
 
     /**
      * Crea la vista principal de tareas.
@@ -93,54 +113,70 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         cargarDatosUsuario();
         cargarTareas();
         configurarCtrlZ();
+        configurarDiagnostico();
+        configurarSolicitudes();
         aplicarIdioma();
     }
 
     /**
      * Inicializa la estructura y comportamiento de la tabla de tareas.
      * <p>
-     * Se utiliza una columna oculta para almacenar el objeto {@link Tarea}
-     * completo, facilitando operaciones posteriores sin romper el patrón MVC.
+     * La tabla usa un {@link TareasTableModel}, que carga las tareas por
+     * bloques a medida que se hacen visibles; la tarea de cada fila se
+     * obtiene con {@link TareasTableModel#getTarea(int)}.
      * </p>
      */
     private void inicializarTabla() {
-        tablaTareas.getColumnModel().getColumn(2).setPreferredWidth(300);
-        tablaTareas.getColumnModel().getColumn(2).setMinWidth(250);
-
-        modeloTabla = new DefaultTableModel(
-                new Object[]{
-                    "OBJ", // OCULTA
-                    "Nombre",
-                    "Descripción",
-                    "Asignado por",
-                    "Responsable",
-                    "Fecha inicio",
-                    "Fecha límite",
-                    "Estado",
-                    "Finalizar"
-                }, 0
-        ) {
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return columnIndex == COLUMNA_CHECKBOX
-                        ? Boolean.class
-                        : Object.class;
-            }
+        modeloTabla = new TareasTableModel(usuarioLogueado.getId(), null);
+        tablaTareas.setModel(modeloTabla);
 
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == COLUMNA_CHECKBOX;
+        tablaTareas.getColumnModel().getColumn(TareasTableModel.COL_DESCRIPCION)
+                .setPreferredWidth(300);
+        tablaTareas.getColumnModel().getColumn(TareasTableModel.COL_DESCRIPCION)
+                .setMinWidth(250);
+
+        configurarDescripciones();
+    }
+
+    /**
+     * Configura la carga bajo demanda de las descripciones.
+     * <p>
+     * La tabla muestra solo un extracto de la descripción. Al seleccionar
+     * una fila se carga su descripción completa, que se muestra como
+     * tooltip de la celda.
+     * </p>
+     */
+    private void configurarDescripciones() {
+        tablaTareas.getSelectionModel().addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting() || tablaTareas.getSelectedRow() == -1) {
+                return;
             }
-        };
 
-        tablaTareas.setModel(modeloTabla);
-        tablaTareas.getColumnModel().getColumn(0).setMinWidth(0);
-        tablaTareas.getColumnModel().getColumn(0).setMaxWidth(0);
-        tablaTareas.getColumnModel().getColumn(0).setWidth(0);
-        tablaTareas.getColumnModel().getColumn(COLUMNA_CHECKBOX).setMinWidth(0);
-        tablaTareas.getColumnModel().getColumn(COLUMNA_CHECKBOX).setMaxWidth(0);
-        tablaTareas.getColumnModel().getColumn(COLUMNA_CHECKBOX).setWidth(0);
+            TareaResumen tarea = modeloTabla.getTarea(tablaTareas.getSelectedRow());
+            if (tarea != null && tarea.getDescripcion() == null) {
+                IndicadorOcupado.alTerminar(
+                        TareaServicio.obtenerDescripcion(tarea.getId()),
+                        descripcion -> {
+                            tarea.setDescripcion(descripcion);
+                            tablaTareas.repaint();
+                        });
+            }
+        });
 
+        tablaTareas.getColumnModel().getColumn(TareasTableModel.COL_DESCRIPCION)
+                .setCellRenderer(new DefaultTableCellRenderer() {
+                    @Override
+                    public Component getTableCellRendererComponent(
+                            JTable table, Object value, boolean isSelected,
+                            boolean hasFocus, int row, int column) {
+                        super.getTableCellRendererComponent(
+                                table, value, isSelected, hasFocus, row, column);
+
+                        TareaResumen tarea = modeloTabla.getTarea(row);
+                        setToolTipText(tarea != null ? tarea.getDescripcion() : null);
+                        return this;
+                    }
+                });
     }
 
     /**
@@ -162,7 +198,18 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
      * Recarga el usuario desde base de datos y actualiza la vista.
      */
     void refrescarUsuario() {
-        usuarioLogueado = UsuarioDAO.buscarPorUsername(usuarioLogueado.getUsername());
+        IndicadorOcupado.esperar(this,
+                UsuarioServicio.buscarPorUsername(usuarioLogueado.getUsername()),
+                this::mostrarUsuario);
+    }
+
+    /**
+     * Muestra los datos actualizados del usuario autenticado.
+     *
+     * @param usuario usuario recién leído de la base de datos
+     */
+    private void mostrarUsuario(Usuario usuario) {
+        usuarioLogueado = usuario;
         lblPuntos.setText(
                 I18n.t("tasks.points") + " " + usuarioLogueado.getPuntos()
         );
@@ -180,11 +227,11 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
     /**
      * Permite seleccionar un nuevo responsable para delegar una tarea.
      *
+     * @param usuarios usuarios entre los que elegir
      * @return usuario seleccionado o {@code null} si se cancela
      */
-    private Usuario seleccionarNuevoResponsable() {
+    private Usuario seleccionarNuevoResponsable(List<Usuario> usuarios) {
 
-        List<Usuario> usuarios = UsuarioDAO.listarUsuarios();
         JComboBox<Usuario> combo = new JComboBox<>();
 
         for (Usuario u : usuarios) {
@@ -216,6 +263,112 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         return (Usuario) combo.getSelectedItem();
     }
 
+    /**
+     * Continúa la delegación de una tarea una vez cargados los usuarios:
+     * pide el nuevo responsable, confirma y ejecuta el canje.
+     *
+     * @param tarea tarea a delegar
+     * @param usuarios usuarios entre los que elegir el nuevo responsable
+     */
+    private void delegarTarea(TareaResumen tarea, List<Usuario> usuarios) {
+        Object[] okOption = {I18n.t("common.ok")};
+        Object[] yesNoOptions = {
+            I18n.t("option.no"),
+            I18n.t("option.yes")
+        };
+
+// 4️⃣ Elegir nuevo responsable
+        Usuario nuevoResponsable = seleccionarNuevoResponsable(usuarios);
+        if (nuevoResponsable == null) {
+            return;
+        }
+
+// 5️⃣ Confirmación
+        int confirm = JOptionPane.showOptionDialog(
+                this,
+                I18n.t("task.delegate.confirm"),
+                I18n.t("task.delegate.title"),
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                yesNoOptions,
+                yesNoOptions[0]
+        );
+
+        if (confirm != 1) {
+            return;
+        }
+
+// 6️⃣ Ejecutar
+        IndicadorOcupado.esperar(this, TareaServicio.canjearQueLoHagaOtro(
+                usuarioLogueado,
+                tarea.getId(),
+                tarea.getVersion(),
+                nuevoResponsable
+        ), resultado -> {
+
+// 7️⃣ Resultado
+            if (resultado == TareaDAO.Resultado.OK) {
+                cargarTareas();
+                refrescarUsuario();
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("task.delegate.success"),
+                        I18n.t("common.success"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.INFORMATION_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+            } else {
+                if (resultado == TareaDAO.Resultado.CONFLICTO) {
+                    cargarTareas();
+                }
+                avisarFallo(resultado, "task.delegate.error");
+            }
+        });
+    }
+
+    /**
+     * Informa de que una operación sobre una tarea no se ha realizado.
+     *
+     * @param resultado resultado de la operación (distinto de {@code OK})
+     * @param claveRechazo clave del mensaje si la operación se ha rechazado
+     */
+    private void avisarFallo(TareaDAO.Resultado resultado, String claveRechazo) {
+        Object[] okOption = {I18n.t("common.ok")};
+        String clave;
+        int tipo;
+
+        switch (resultado) {
+            case RECHAZADO:
+                clave = claveRechazo;
+                tipo = JOptionPane.WARNING_MESSAGE;
+                break;
+            case CONFLICTO:
+                clave = "task.conflict";
+                tipo = JOptionPane.WARNING_MESSAGE;
+                break;
+            default:
+                clave = "common.unexpectedError";
+                tipo = JOptionPane.ERROR_MESSAGE;
+                break;
+        }
+
+        JOptionPane.showOptionDialog(
+                this,
+                I18n.t(clave),
+                tipo == JOptionPane.ERROR_MESSAGE ? I18n.t("common.error") : I18n.t("common.warning"),
+                JOptionPane.DEFAULT_OPTION,
+                tipo,
+                null,
+                okOption,
+                okOption[0]
+        );
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -501,7 +654,10 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
             return;
         }
 
-        Tarea tarea = (Tarea) modeloTabla.getValueAt(filaSeleccionada, COL_TAREA_OBJ);
+        TareaResumen tarea = modeloTabla.getTarea(filaSeleccionada);
+        if (tarea == null) {
+            return; // bloque aún cargándose
+        }
 
 // 2️⃣ Ya está finalizada
         if (Tarea.ESTADO_FINALIZADA.equalsIgnoreCase(tarea.getEstado())) {
@@ -536,28 +692,33 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         }
 
 // 4️⃣ Finalizar tarea
-        // 4️⃣ Finalizar tarea
-        TareaDAO.marcarFinalizada(tarea);
-        tarea.setEstado(Tarea.ESTADO_FINALIZADA);
-        modeloTabla.setValueAt(Tarea.ESTADO_FINALIZADA, filaSeleccionada, 7);
+        IndicadorOcupado.esperar(this, TareaServicio.marcarFinalizada(tarea.getId(), tarea.getVersion()), resultado -> {
+            cargarTareas();
+
+            if (resultado != TareaDAO.Resultado.OK) {
+                avisarFallo(resultado, "task.alreadyFinished");
+                return;
+            }
 
 // 🔹 Gurdamos ultima tarea finalizada
-        ultimaTareaFinalizadaId = tarea.getId();
-        puntosUltimaTarea = tarea.getPuntosRecompensa();
+            ultimaTareaFinalizadaId = tarea.getId();
+            // UPDATE VERSIONED: la finalización incrementa la versión en uno
+            ultimaTareaFinalizadaVersion = tarea.getVersion() + 1;
 
-        refrescarUsuario();
+            refrescarUsuario();
 
 // 5️⃣ Éxito
-        JOptionPane.showOptionDialog(
-                this,
-                I18n.t("task.finish.success"),
-                I18n.t("common.success"),
-                JOptionPane.DEFAULT_OPTION,
-                JOptionPane.INFORMATION_MESSAGE,
-                null,
-                okOption,
-                okOption[0]
-        );
+            JOptionPane.showOptionDialog(
+                    this,
+                    I18n.t("task.finish.success"),
+                    I18n.t("common.success"),
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.INFORMATION_MESSAGE,
+                    null,
+                    okOption,
+                    okOption[0]
+            );
+        });
 
     }//GEN-LAST:event_btnFinalizarActionPerformed
 
@@ -565,10 +726,6 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         int fila = tablaTareas.getSelectedRow();
 
         Object[] okOption = {I18n.t("common.ok")};
-        Object[] yesNoOptions = {
-            I18n.t("option.no"),
-            I18n.t("option.yes")
-        };
 
 // 1️⃣ Selección
         if (fila == -1) {
@@ -585,7 +742,10 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
             return;
         }
 
-        Tarea tarea = (Tarea) modeloTabla.getValueAt(fila, COL_TAREA_OBJ);
+        TareaResumen tarea = modeloTabla.getTarea(fila);
+        if (tarea == null) {
+            return; // bloque aún cargándose
+        }
 
 // 2️⃣ No permitir tareas finalizadas
         if (Tarea.ESTADO_FINALIZADA.equalsIgnoreCase(tarea.getEstado())) {
@@ -603,7 +763,7 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         }
 
 // 3️⃣ Validar propiedad
-        if (!tarea.getResponsable().getId().equals(usuarioLogueado.getId())) {
+        if (!tarea.getResponsableId().equals(usuarioLogueado.getId())) {
             JOptionPane.showOptionDialog(
                     this,
                     I18n.t("task.delegate.onlyOwn"),
@@ -618,60 +778,8 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         }
 
 // 4️⃣ Elegir nuevo responsable
-        Usuario nuevoResponsable = seleccionarNuevoResponsable();
-        if (nuevoResponsable == null) {
-            return;
-        }
-
-// 5️⃣ Confirmación
-        int confirm = JOptionPane.showOptionDialog(
-                this,
-                I18n.t("task.delegate.confirm"),
-                I18n.t("task.delegate.title"),
-                JOptionPane.YES_NO_OPTION,
-                JOptionPane.QUESTION_MESSAGE,
-                null,
-                yesNoOptions,
-                yesNoOptions[0]
-        );
-
-        if (confirm != 1) {
-            return;
-        }
-
-// 6️⃣ Ejecutar
-        boolean ok = TareaDAO.canjearQueLoHagaOtro(
-                usuarioLogueado,
-                tarea,
-                nuevoResponsable
-        );
-
-// 7️⃣ Resultado
-        if (ok) {
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("task.delegate.success"),
-                    I18n.t("common.success"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.INFORMATION_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-        } else {
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("task.delegate.error"),
-                    I18n.t("common.error"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.ERROR_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-        }
-
-
+        IndicadorOcupado.esperar(this, UsuarioServicio.listarUsuarios(),
+                usuarios -> delegarTarea(tarea, usuarios));
     }//GEN-LAST:event_btnQueOtroActionPerformed
 
     private void canjearPuntosBtnActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_canjearPuntosBtnActionPerformed
@@ -704,7 +812,10 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
             return;
         }
 
-        Tarea tarea = (Tarea) modeloTabla.getValueAt(fila, COL_TAREA_OBJ);
+        TareaResumen tarea = modeloTabla.getTarea(fila);
+        if (tarea == null) {
+            return; // bloque aún cargándose
+        }
 
 // 🔒 Solo permitir eliminar si está finalizada
         if (!"FINALIZADA".equals(tarea.getEstado())) {
@@ -738,37 +849,37 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
             return;
         }
 
-        boolean ok = TareaDAO.eliminar(tarea);
-
-        if (ok) {
-
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("task.delete.success"),
-                    I18n.t("common.success"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.INFORMATION_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-
-            cargarTareas();
-
-        } else {
-
-            JOptionPane.showOptionDialog(
-                    this,
-                    I18n.t("task.delete.error"),
-                    I18n.t("common.error"),
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.ERROR_MESSAGE,
-                    null,
-                    okOption,
-                    okOption[0]
-            );
-        }
-
+        IndicadorOcupado.esperar(this, TareaServicio.eliminar(tarea.getId()), ok -> {
+
+            if (ok) {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("task.delete.success"),
+                        I18n.t("common.success"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.INFORMATION_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+
+                cargarTareas();
+
+            } else {
+
+                JOptionPane.showOptionDialog(
+                        this,
+                        I18n.t("task.delete.error"),
+                        I18n.t("common.error"),
+                        JOptionPane.DEFAULT_OPTION,
+                        JOptionPane.ERROR_MESSAGE,
+                        null,
+                        okOption,
+                        okOption[0]
+                );
+            }
+        });
 
     }//GEN-LAST:event_btnEliminarActionPerformed
 
@@ -883,27 +994,15 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
     // End of variables declaration//GEN-END:variables
 
     /**
-     * Carga las tareas asignadas al usuario autenticado.
+     * Actualiza las tareas asignadas al usuario autenticado.
+     * <p>
+     * Solo se piden las tareas que han cambiado desde la última carga y
+     * se aplican fila a fila, conservando la selección y el
+     * desplazamiento de la tabla (ver {@link TareasTableModel#refrescar()}).
+     * </p>
      */
     void cargarTareas() {
-
-        List<Tarea> tareas = TareaDAO.listarPorResponsable(usuarioLogueado);
-
-        modeloTabla.setRowCount(0);
-
-        for (Tarea t : tareas) {
-            modeloTabla.addRow(new Object[]{
-                t, // 👈 objeto completo
-                t.getNombre(),
-                t.getDescripcion(),
-                t.getAsignadoPor().getUsername(),
-                t.getResponsable().getUsername(),
-                t.getFechaInicio(),
-                t.getFechaLimite(),
-                t.getEstado(),
-                false
-            });
-        }
+        modeloTabla.refrescar();
     }
 
     /**
@@ -928,6 +1027,158 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         });
     }
 
+    /**
+     * Añade al menú de ayuda la opción oculta de diagnóstico del EDT.
+     * <p>
+     * La opción aparece al pulsar <b>Ctrl + Mayús + D</b> y muestra el
+     * informe de {@link VigilanteEdt}: histograma de latencias y pilas de
+     * los últimos bloqueos de la interfaz.
+     * </p>
+     */
+    private void configurarDiagnostico() {
+        menuDiagnostico = new JMenuItem();
+        menuDiagnostico.setVisible(false);
+        menuDiagnostico.addActionListener(e -> mostrarDiagnostico());
+        jMenu2.add(menuDiagnostico);
+
+        KeyStroke ctrlShiftD = KeyStroke.getKeyStroke(
+                KeyEvent.VK_D,
+                InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK
+        );
+
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(ctrlShiftD, "diagnostico");
+
+        getRootPane().getActionMap().put("diagnostico", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                menuDiagnostico.setVisible(true);
+            }
+        });
+    }
+
+    /**
+     * Muestra el informe de latencia y bloqueos del EDT y los tiempos de
+     * las transacciones de la capa DAO.
+     */
+    private void mostrarDiagnostico() {
+        JTextArea texto = new JTextArea(
+                VigilanteEdt.informe() + "\n" + Transaccion.informe(), 25, 90);
+        texto.setEditable(false);
+        texto.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        texto.setCaretPosition(0);
+
+        Object[] okOption = {I18n.t("common.ok")};
+        JOptionPane.showOptionDialog(
+                this,
+                new JScrollPane(texto),
+                I18n.t("diagnostics.title"),
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                okOption,
+                okOption[0]
+        );
+    }
+
+    /**
+     * Añade al menú de sesión la opción de aprobar solicitudes de canje,
+     * visible solo para padres y madres.
+     */
+    private void configurarSolicitudes() {
+        menuSolicitudes = new JMenuItem();
+        menuSolicitudes.setVisible(
+                usuarioLogueado.getRol() == Rol.PADRE || usuarioLogueado.getRol() == Rol.MADRE
+        );
+        menuSolicitudes.addActionListener(e -> cargarSolicitudes());
+        jMenu4.add(menuSolicitudes);
+    }
+
+    /**
+     * Carga las solicitudes de canje pendientes del usuario y las muestra.
+     */
+    private void cargarSolicitudes() {
+        IndicadorOcupado.esperar(this,
+                RecompensaServicio.listarSolicitudesPendientes(usuarioLogueado.getId()),
+                this::mostrarSolicitudes);
+    }
+
+    /**
+     * Muestra las solicitudes de canje pendientes y aprueba la que se
+     * seleccione.
+     *
+     * @param solicitudes solicitudes pendientes del usuario
+     */
+    private void mostrarSolicitudes(List<SolicitudCanje> solicitudes) {
+        if (solicitudes.isEmpty()) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    I18n.t("redemptions.empty"),
+                    I18n.t("redemptions.title"),
+                    JOptionPane.INFORMATION_MESSAGE
+            );
+            return;
+        }
+
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        JList<SolicitudCanje> lista = new JList<>(solicitudes.toArray(new SolicitudCanje[0]));
+        lista.setVisibleRowCount(Math.min(solicitudes.size(), 10));
+        lista.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(
+                    JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                SolicitudCanje s = (SolicitudCanje) value;
+                String texto = s.getCreadaEn().format(formato) + " - "
+                        + s.getSolicitante().getUsername() + ": "
+                        + I18n.getRewardTranslation(s.getRecompensa().getNombre())
+                        + " (" + s.getPuntos() + ")";
+                return super.getListCellRendererComponent(list, texto, index, isSelected, cellHasFocus);
+            }
+        });
+        lista.setSelectedIndex(0);
+
+        Object[] options = {
+            I18n.t("common.cancel"),
+            I18n.t("redemptions.approve")
+        };
+
+        int result = JOptionPane.showOptionDialog(
+                this,
+                new JScrollPane(lista),
+                I18n.t("redemptions.title"),
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.PLAIN_MESSAGE,
+                null,
+                options,
+                options[1]
+        );
+
+        SolicitudCanje solicitud = lista.getSelectedValue();
+        if (result != 1 || solicitud == null) {
+            return;
+        }
+
+        IndicadorOcupado.esperar(this,
+                RecompensaServicio.aprobarSolicitud(solicitud.getId(), usuarioLogueado.getId()), ok -> {
+            if (ok) {
+                JOptionPane.showMessageDialog(
+                        this,
+                        I18n.t("redemptions.approved"),
+                        I18n.t("common.success"),
+                        JOptionPane.INFORMATION_MESSAGE
+                );
+            } else {
+                JOptionPane.showMessageDialog(
+                        this,
+                        I18n.t("redemptions.alreadyResolved"),
+                        I18n.t("common.warning"),
+                        JOptionPane.WARNING_MESSAGE
+                );
+                cargarSolicitudes();
+            }
+        });
+    }
+
     /**
      * Deshace la última acción de finalización de tarea.
      */
@@ -954,18 +1205,24 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
             return;
         }
 
-        boolean ok = TareaDAO.deshacerFinalizacion(
-                ultimaTareaFinalizadaId,
-                puntosUltimaTarea
-        );
-
-        if (ok) {
-            ultimaTareaFinalizadaId = null;
-            puntosUltimaTarea = 0;
+        Long tareaId = ultimaTareaFinalizadaId;
+        long version = ultimaTareaFinalizadaVersion;
 
-            cargarTareas();
-            refrescarUsuario();
-        }
+        IndicadorOcupado.esperar(this, TareaServicio.deshacerFinalizacion(tareaId, version), resultado -> {
+            // Tras un conflicto o un rechazo ya no se puede deshacer
+            if (resultado != TareaDAO.Resultado.ERROR && tareaId.equals(ultimaTareaFinalizadaId)) {
+                ultimaTareaFinalizadaId = null;
+            }
+            if (resultado == TareaDAO.Resultado.OK) {
+                cargarTareas();
+                refrescarUsuario();
+                return;
+            }
+            if (resultado == TareaDAO.Resultado.CONFLICTO) {
+                cargarTareas();
+            }
+            avisarFallo(resultado, "task.undo.error");
+        });
     }
 
     /**
@@ -997,22 +1254,10 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         );
 
         // Cabecera tabla
-        tablaTareas.getColumnModel().getColumn(1)
-                .setHeaderValue(I18n.t("task.name"));
-        tablaTareas.getColumnModel().getColumn(2)
-                .setHeaderValue(I18n.t("task.description"));
-        tablaTareas.getColumnModel().getColumn(3)
-                .setHeaderValue(I18n.t("task.assignedBy"));
-        tablaTareas.getColumnModel().getColumn(4)
-                .setHeaderValue(I18n.t("task.responsible"));
-        tablaTareas.getColumnModel().getColumn(5)
-                .setHeaderValue(I18n.t("task.startDate"));
-        tablaTareas.getColumnModel().getColumn(6)
-                .setHeaderValue(I18n.t("task.endDate"));
-        tablaTareas.getColumnModel().getColumn(7)
-                .setHeaderValue(I18n.t("task.status"));
-        tablaTareas.getColumnModel().getColumn(8)
-                .setHeaderValue(I18n.t("task.finishColumn"));
+        for (int i = 0; i < modeloTabla.getColumnCount(); i++) {
+            tablaTareas.getColumnModel().getColumn(i)
+                    .setHeaderValue(modeloTabla.getColumnName(i));
+        }
 
         tablaTareas.getTableHeader().repaint();
 
@@ -1023,6 +1268,8 @@ public class TareasVista extends javax.swing.JFrame implements I18nAware {
         ingles.setText(I18n.t("menu.english"));
         jMenu2.setText(I18n.t("menu.help"));
         jMenuItem5.setText(I18n.t("menu.controls"));
+        menuDiagnostico.setText(I18n.t("menu.diagnostics"));
+        menuSolicitudes.setText(I18n.t("menu.redemptions"));
         jMenu1.setText(I18n.t("menu.lenguage"));
 
     }
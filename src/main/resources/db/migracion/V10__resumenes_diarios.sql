@@ -0,0 +1,11 @@
+-- Resúmenes diarios de tareas pendientes ya generados. La fila del día
+-- se inserta en la misma transacción que los correos del resumen: la
+-- clave primaria impide que dos instancias de la aplicación lo generen
+-- dos veces.
+
+CREATE TABLE IF NOT EXISTS resumenes_diarios (
+    fecha DATE NOT NULL,
+    mensajes INTEGER NOT NULL,
+    creado_en TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (fecha)
+);
@@ -0,0 +1,39 @@
+-- Esquema inicial (línea base).
+-- Usa IF NOT EXISTS para que las bases de datos creadas antes con
+-- hbm2ddl.auto=update se adopten sin cambios.
+-- SQL común a H2 y MySQL.
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    passwordHash VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    rol VARCHAR(255) NOT NULL,
+    puntos INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_username UNIQUE (username),
+    CONSTRAINT ck_usuarios_rol CHECK (rol IN ('PADRE', 'MADRE', 'HIJO', 'NIETO', 'SOBRINO', 'TIO'))
+);
+
+CREATE TABLE IF NOT EXISTS tareas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255) NOT NULL,
+    descripcion TEXT,
+    asignado_por BIGINT NOT NULL,
+    responsable BIGINT NOT NULL,
+    fecha_inicio DATE,
+    fecha_limite DATE,
+    estado VARCHAR(255) NOT NULL,
+    puntosRecompensa INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tareas_asignado_por FOREIGN KEY (asignado_por) REFERENCES usuarios (id),
+    CONSTRAINT fk_tareas_responsable FOREIGN KEY (responsable) REFERENCES usuarios (id)
+);
+
+CREATE TABLE IF NOT EXISTS recompensas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255) NOT NULL,
+    descripcion VARCHAR(255),
+    coste_puntos INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,14 @@
+-- Índices para los filtros habituales.
+-- Se corresponden con las anotaciones @Index de las entidades.
+
+-- buscarPorEmail, existeEmail
+CREATE INDEX idx_usuarios_email ON usuarios (email);
+
+-- listarPorResponsable y tareas pendientes de un usuario
+CREATE INDEX idx_tareas_responsable_estado ON tareas (responsable, estado);
+
+-- Tareas por estado ordenadas o filtradas por fecha límite
+CREATE INDEX idx_tareas_estado_fecha_limite ON tareas (estado, fecha_limite);
+
+-- Tareas por fecha límite (vencidas, próximas a vencer)
+CREATE INDEX idx_tareas_fecha_limite ON tareas (fecha_limite);
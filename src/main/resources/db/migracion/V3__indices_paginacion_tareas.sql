@@ -0,0 +1,10 @@
+-- Índices para la paginación por clave de las tareas de un responsable
+-- (TareaDAO.listarPagina): filtro por responsable y, opcionalmente,
+-- estado, con orden por (fecha_limite, id).
+
+CREATE INDEX idx_tareas_responsable_estado_fecha ON tareas (responsable, estado, fecha_limite, id);
+
+CREATE INDEX idx_tareas_responsable_fecha ON tareas (responsable, fecha_limite, id);
+
+-- Queda cubierto por idx_tareas_responsable_estado_fecha
+DROP INDEX idx_tareas_responsable_estado ON tareas;
@@ -0,0 +1,26 @@
+-- Seguimiento de cambios de las tareas para el refresco incremental
+-- de la tabla de tareas (TareaDAO.cambiosDesde).
+
+-- Última modificación de la fila; la mantiene la propia base de datos
+ALTER TABLE tareas ADD COLUMN actualizado_en TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) ON UPDATE LOCALTIMESTAMP(6) NOT NULL;
+
+-- Momento en que la tarea entró en la lista de su responsable actual
+-- (creación o delegación)
+ALTER TABLE tareas ADD COLUMN asignada_en TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) NOT NULL;
+
+CREATE INDEX idx_tareas_responsable_actualizado ON tareas (responsable, actualizado_en);
+
+-- Tareas que han salido de la lista de un responsable (eliminadas o
+-- delegadas a otro usuario). No tiene claves ajenas: la tarea puede
+-- haber dejado de existir.
+CREATE TABLE IF NOT EXISTS tareas_eliminadas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tarea_id BIGINT NOT NULL,
+    responsable BIGINT NOT NULL,
+    fecha_limite DATE,
+    asignada_en TIMESTAMP(6) NOT NULL,
+    eliminada_en TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_tareas_eliminadas_responsable ON tareas_eliminadas (responsable, eliminada_en);
@@ -0,0 +1,5 @@
+-- Versión de las filas para el bloqueo optimista (@Version) de usuarios
+-- y tareas. Cada escritura la incrementa; una escritura que parte de una
+-- versión anterior se rechaza en lugar de sobrescribir el cambio ajeno.
+ALTER TABLE usuarios ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tareas ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
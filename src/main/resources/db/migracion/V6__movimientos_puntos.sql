@@ -0,0 +1,26 @@
+-- Libro de movimientos de puntos (solo se añaden filas). usuarios.puntos
+-- pasa a ser el saldo materializado: cada operación que lo cambia
+-- inserta su movimiento en la misma transacción.
+
+CREATE TABLE IF NOT EXISTS movimientos_puntos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario BIGINT NOT NULL,
+    puntos INTEGER NOT NULL,
+    tipo VARCHAR(30) NOT NULL,
+    -- Sin clave ajena: la tarea puede haber dejado de existir
+    tarea BIGINT,
+    concepto VARCHAR(255),
+    fecha TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_movimientos_usuario FOREIGN KEY (usuario) REFERENCES usuarios (id)
+);
+
+-- Historial y sumas por rango de fechas: la suma se resuelve solo con
+-- el índice, sin leer la tabla
+CREATE INDEX idx_movimientos_usuario_fecha ON movimientos_puntos (usuario, fecha, puntos);
+
+CREATE INDEX idx_movimientos_tarea ON movimientos_puntos (tarea);
+
+-- Apertura: el saldo que ya tenía cada usuario
+INSERT INTO movimientos_puntos (usuario, puntos, tipo, concepto)
+SELECT id, puntos, 'APERTURA', 'Saldo inicial' FROM usuarios WHERE puntos <> 0;
@@ -0,0 +1,32 @@
+-- Solicitudes de canje de recompensas. Sustituyen a las tareas
+-- "Recompensa: ..." que se creaban para cada padre o madre: hay una
+-- única solicitud por canje, que cualquiera de sus aprobadores resuelve.
+
+CREATE TABLE IF NOT EXISTS solicitudes_canje (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    solicitante BIGINT NOT NULL,
+    recompensa BIGINT NOT NULL,
+    puntos INTEGER NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    creada_en TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) NOT NULL,
+    aprobada_por BIGINT,
+    aprobada_en TIMESTAMP(6),
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_solicitudes_solicitante FOREIGN KEY (solicitante) REFERENCES usuarios (id),
+    CONSTRAINT fk_solicitudes_recompensa FOREIGN KEY (recompensa) REFERENCES recompensas (id),
+    CONSTRAINT fk_solicitudes_aprobada_por FOREIGN KEY (aprobada_por) REFERENCES usuarios (id),
+    CONSTRAINT ck_solicitudes_estado CHECK (estado IN ('PENDIENTE', 'APROBADA'))
+);
+
+-- Usuarios que pueden aprobar cada solicitud
+CREATE TABLE IF NOT EXISTS solicitudes_canje_aprobadores (
+    solicitud BIGINT NOT NULL,
+    aprobador BIGINT NOT NULL,
+    PRIMARY KEY (solicitud, aprobador),
+    CONSTRAINT fk_aprobadores_solicitud FOREIGN KEY (solicitud) REFERENCES solicitudes_canje (id),
+    CONSTRAINT fk_aprobadores_usuario FOREIGN KEY (aprobador) REFERENCES usuarios (id)
+);
+
+-- Solicitudes pendientes de un aprobador
+CREATE INDEX idx_aprobadores_aprobador ON solicitudes_canje_aprobadores (aprobador, solicitud);
@@ -0,0 +1,16 @@
+-- Ids por bloques (GeneradorIdBloques) en lugar de AUTO_INCREMENT, para
+-- que Hibernate pueda agrupar las inserciones en lotes JDBC. Cada fila
+-- guarda el siguiente id libre de una tabla.
+
+CREATE TABLE IF NOT EXISTS generadores_id (
+    nombre VARCHAR(255) NOT NULL,
+    siguiente BIGINT NOT NULL,
+    PRIMARY KEY (nombre)
+);
+
+-- Los ids nuevos continúan a partir de los ya asignados por AUTO_INCREMENT
+INSERT INTO generadores_id (nombre, siguiente) SELECT 'usuarios', COALESCE(MAX(id), 0) + 1 FROM usuarios;
+INSERT INTO generadores_id (nombre, siguiente) SELECT 'tareas', COALESCE(MAX(id), 0) + 1 FROM tareas;
+INSERT INTO generadores_id (nombre, siguiente) SELECT 'recompensas', COALESCE(MAX(id), 0) + 1 FROM recompensas;
+INSERT INTO generadores_id (nombre, siguiente) SELECT 'movimientos_puntos', COALESCE(MAX(id), 0) + 1 FROM movimientos_puntos;
+INSERT INTO generadores_id (nombre, siguiente) SELECT 'solicitudes_canje', COALESCE(MAX(id), 0) + 1 FROM solicitudes_canje;
@@ -0,0 +1,24 @@
+-- Bandeja de salida del correo. Los mensajes se guardan en la misma
+-- transacción que el cambio que los origina y los envía en segundo
+-- plano EnvioCorreos, con reintentos.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT NOT NULL,
+    destino VARCHAR(255) NOT NULL,
+    asunto VARCHAR(255) NOT NULL,
+    -- Se vacía al terminar (enviado o descartado): puede contener una contraseña
+    cuerpo VARCHAR(4000),
+    estado VARCHAR(20) NOT NULL,
+    intentos INTEGER DEFAULT 0 NOT NULL,
+    siguiente_intento TIMESTAMP(6) NOT NULL,
+    ultimo_error VARCHAR(1000),
+    creado_en TIMESTAMP(6) DEFAULT LOCALTIMESTAMP(6) NOT NULL,
+    enviado_en TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT ck_email_outbox_estado CHECK (estado IN ('PENDIENTE', 'ENVIADO', 'DESCARTADO'))
+);
+
+-- Mensajes pendientes cuyo siguiente intento ya ha llegado
+CREATE INDEX idx_email_outbox_estado_intento ON email_outbox (estado, siguiente_intento);
+
+INSERT INTO generadores_id (nombre, siguiente) VALUES ('email_outbox', 1);
@@ -0,0 +1,241 @@
+package com.yhon.dam.proyectodamnavidad.util;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Banco de pruebas del envío de correo.
+ * <p>
+ * Arranca un servidor SMTP mínimo en local, sin cifrado ni
+ * autenticación, y le envía el mismo número de mensajes de dos formas:
+ * </p>
+ * <ul>
+ * <li><b>una conexión por mensaje</b>: sesión y conexión nuevas para
+ * cada mensaje, como hacía antes {@link EmailUtil}</li>
+ * <li><b>conexión reutilizada</b>: {@link EmailUtil#enviar}, que envía
+ * todos los mensajes por la misma conexión</li>
+ * </ul>
+ *
+ * Está en las fuentes de test para que no forme parte del jar de la
+ * aplicación. Se ejecuta aparte:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.yhon.dam.proyectodamnavidad.util.BancoCorreo -Dexec.args="[mensajes] [latencia_ms]"
+ * </pre>
+ *
+ * La latencia opcional retrasa cada respuesta del servidor para simular
+ * la red. Contra un servidor real cada conexión cuesta además el
+ * STARTTLS y la autenticación, por lo que la diferencia es mayor.
+ *
+ * @author yhon
+ */
+public class BancoCorreo {
+
+    /** Mensajes por escenario si no se indica otra cosa. */
+    private static final int MENSAJES_DEFECTO = 1000;
+
+    /** Remitente de los mensajes de prueba. */
+    private static final String REMITENTE = "banco@localhost";
+
+    private BancoCorreo() {
+    }
+
+    /**
+     * Ejecuta los escenarios y muestra los resultados.
+     *
+     * @param args número de mensajes y latencia del servidor en ms
+     * (opcionales)
+     * @throws Exception si el servidor local no arranca o falla un envío
+     */
+    public static void main(String[] args) throws Exception {
+        int mensajes = args.length > 0 ? Integer.parseInt(args[0]) : MENSAJES_DEFECTO;
+        long latenciaMs = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        try (ServidorSmtp servidor = new ServidorSmtp(latenciaMs)) {
+            // Antes de usar EmailUtil, que lee la configuración al cargarse
+            System.setProperty("proyectodam.smtp.host", "localhost");
+            System.setProperty("proyectodam.smtp.port", String.valueOf(servidor.getPuerto()));
+            System.setProperty("proyectodam.smtp.auth", "false");
+            System.setProperty("proyectodam.smtp.starttls", "false");
+
+            System.out.println("Envío de " + mensajes + " mensajes (SMTP local, latencia "
+                    + latenciaMs + " ms)");
+            System.out.println(String.format("  %-26s %10s %10s %12s",
+                    "escenario", "ms", "mensajes/s", "conexiones"));
+
+            long ns = System.nanoTime();
+            for (int i = 0; i < mensajes; i++) {
+                enviarConConexionNueva(servidor.getPuerto(), i);
+            }
+            mostrar("una conexión por mensaje", mensajes, System.nanoTime() - ns, servidor.reiniciarConexiones());
+
+            ns = System.nanoTime();
+            for (int i = 0; i < mensajes; i++) {
+                EmailUtil.enviar("destino" + i + "@localhost", "Aviso " + i, "Mensaje de prueba " + i);
+            }
+            mostrar("conexión reutilizada", mensajes, System.nanoTime() - ns, servidor.reiniciarConexiones());
+        } finally {
+            EmailUtil.cerrar();
+        }
+    }
+
+    /**
+     * Envía un mensaje con una sesión y una conexión nuevas.
+     *
+     * @param puerto puerto del servidor local
+     * @param i número del mensaje
+     * @throws MessagingException si falla el envío
+     */
+    private static void enviarConConexionNueva(int puerto, int i) throws MessagingException {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "localhost");
+        props.put("mail.smtp.port", String.valueOf(puerto));
+        props.put("mail.smtp.localhost", "localhost");
+
+        Message message = new MimeMessage(Session.getInstance(props));
+        message.setFrom(new InternetAddress(REMITENTE));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse("destino" + i + "@localhost"));
+        message.setSubject("Aviso " + i);
+        message.setText("Mensaje de prueba " + i);
+
+        Transport.send(message);
+    }
+
+    /**
+     * Muestra el resultado de un escenario.
+     *
+     * @param nombre nombre del escenario
+     * @param mensajes mensajes enviados
+     * @param ns tiempo total (ns)
+     * @param conexiones conexiones que ha recibido el servidor
+     */
+    private static void mostrar(String nombre, int mensajes, long ns, long conexiones) {
+        System.out.println(String.format("  %-26s %10d %10.0f %12d",
+                nombre, TimeUnit.NANOSECONDS.toMillis(ns), mensajes * 1e9 / ns, conexiones));
+    }
+
+    /**
+     * Servidor SMTP mínimo que acepta y descarta todos los mensajes.
+     */
+    private static final class ServidorSmtp implements AutoCloseable {
+
+        private final ServerSocket socket;
+        private final long latenciaMs;
+        private final AtomicLong conexiones = new AtomicLong();
+
+        /**
+         * Arranca el servidor en un puerto libre.
+         *
+         * @param latenciaMs retraso de cada respuesta (ms)
+         * @throws IOException si no se puede abrir el puerto
+         */
+        ServidorSmtp(long latenciaMs) throws IOException {
+            this.socket = new ServerSocket(0);
+            this.latenciaMs = latenciaMs;
+
+            Thread t = new Thread(this::aceptar, "banco-smtp");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        int getPuerto() {
+            return socket.getLocalPort();
+        }
+
+        /**
+         * Devuelve las conexiones recibidas y pone el contador a cero.
+         *
+         * @return conexiones desde la última llamada
+         */
+        long reiniciarConexiones() {
+            return conexiones.getAndSet(0);
+        }
+
+        private void aceptar() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket cliente = socket.accept();
+                    conexiones.incrementAndGet();
+                    Thread t = new Thread(() -> atender(cliente), "banco-smtp-cliente");
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    // Servidor cerrado
+                }
+            }
+        }
+
+        /**
+         * Atiende una conexión hasta que el cliente envía {@code QUIT} o
+         * la cierra.
+         *
+         * @param cliente conexión del cliente
+         */
+        private void atender(Socket cliente) {
+            try (cliente;
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(cliente.getInputStream(), StandardCharsets.US_ASCII))) {
+                OutputStream out = cliente.getOutputStream();
+                responder(out, "220 localhost");
+
+                boolean datos = false;
+                String linea;
+                while ((linea = in.readLine()) != null) {
+                    if (datos) {
+                        if (linea.equals(".")) {
+                            datos = false;
+                            responder(out, "250 OK");
+                        }
+                        continue;
+                    }
+
+                    String orden = linea.length() >= 4 ? linea.substring(0, 4).toUpperCase() : linea;
+                    switch (orden) {
+                        case "DATA" -> {
+                            datos = true;
+                            responder(out, "354 Fin con <CRLF>.<CRLF>");
+                        }
+                        case "QUIT" -> {
+                            responder(out, "221 Adios");
+                            return;
+                        }
+                        default -> responder(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Conexión cortada por el cliente
+            }
+        }
+
+        private void responder(OutputStream out, String respuesta) throws IOException {
+            if (latenciaMs > 0) {
+                try {
+                    Thread.sleep(latenciaMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            out.write((respuesta + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.yhon.dam.proyectodamnavidad.util;
+
+import com.yhon.dam.proyectodamnavidad.modelo.GeneradorIdBloques;
+import com.yhon.dam.proyectodamnavidad.modelo.Rol;
+import com.yhon.dam.proyectodamnavidad.modelo.Tarea;
+import com.yhon.dam.proyectodamnavidad.modelo.Usuario;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+/**
+ * Banco de pruebas del rendimiento de las inserciones.
+ * <p>
+ * Inserta el mismo número de tareas en una base de datos H2 en memoria,
+ * nueva para cada escenario y con el esquema de las migraciones, y
+ * muestra las filas por segundo de cada uno:
+ * </p>
+ * <ul>
+ * <li><b>sin lotes</b>: cada {@code INSERT} se envía por separado, como
+ * ocurría con {@code GenerationType.IDENTITY}</li>
+ * <li><b>lotes, bloque 1</b>: inserciones por lotes, pero un acceso a
+ * {@code generadores_id} por cada id</li>
+ * <li><b>lotes, bloque N</b>: la configuración de la aplicación</li>
+ * </ul>
+ *
+ * Está en las fuentes de test para que no forme parte del jar de la
+ * aplicación. Se ejecuta aparte y no toca sus datos:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.yhon.dam.proyectodamnavidad.util.BancoInserciones -Dexec.args="[filas] [lote]"
+ * </pre>
+ *
+ * En H2 en memoria cada sentencia cuesta muy poco; contra MySQL, donde
+ * cada sentencia es un viaje por la red, la diferencia es mayor.
+ *
+ * @author yhon
+ */
+public class BancoInserciones {
+
+    /** Filas por escenario si no se indica otra cosa. */
+    private static final int FILAS_DEFECTO = 20000;
+
+    /** Repeticiones de cada escenario; se toma la mejor (las primeras calientan la JVM). */
+    private static final int REPETICIONES = 3;
+
+    private static int escenarios;
+
+    private BancoInserciones() {
+    }
+
+    /**
+     * Ejecuta los escenarios y muestra los resultados.
+     *
+     * @param args número de filas y tamaño del lote (opcionales)
+     */
+    public static void main(String[] args) {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : FILAS_DEFECTO;
+        int lote = args.length > 1 ? Integer.parseInt(args[1]) : GeneradorIdBloques.TAMANIO_BLOQUE_DEFECTO;
+
+        System.out.println("Inserción de " + filas + " tareas (H2 en memoria)");
+        System.out.println(String.format("  %-20s %10s %12s", "escenario", "ms", "filas/s"));
+
+        medir("sin lotes", filas, 0, lote);
+        medir("lotes, bloque 1", filas, lote, 1);
+        medir("lotes, bloque " + lote, filas, lote, lote);
+    }
+
+    /**
+     * Mide un escenario.
+     *
+     * @param nombre nombre del escenario
+     * @param filas número de tareas a insertar
+     * @param lote {@code hibernate.jdbc.batch_size} (0 sin lotes)
+     * @param bloque tamaño del bloque de ids
+     */
+    private static void medir(String nombre, int filas, int lote, int bloque) {
+        long mejorNs = Long.MAX_VALUE;
+
+        for (int i = 0; i < REPETICIONES; i++) {
+            try (SessionFactory sf = construir(lote, bloque)) {
+                mejorNs = Math.min(mejorNs, insertar(sf, filas, Math.max(lote, 1)));
+            }
+        }
+
+        long ms = TimeUnit.NANOSECONDS.toMillis(mejorNs);
+        System.out.println(String.format("  %-20s %10d %12.0f",
+                nombre, ms, filas * 1e9 / mejorNs));
+    }
+
+    /**
+     * Inserta las tareas en una transacción, vaciando la sesión cada
+     * {@code tramo} filas para que no crezca sin límite.
+     *
+     * @param sf SessionFactory del escenario
+     * @param filas número de tareas
+     * @param tramo filas entre cada {@code flush}
+     * @return tiempo de la inserción (ns)
+     */
+    private static long insertar(SessionFactory sf, int filas, int tramo) {
+        try (Session session = sf.openSession()) {
+            session.beginTransaction();
+
+            Usuario u = new Usuario();
+            u.setUsername("banco");
+            u.setPasswordHash("-");
+            u.setRol(Rol.PADRE);
+            session.persist(u);
+            session.flush();
+
+            long inicio = System.nanoTime();
+            for (int i = 0; i < filas; i++) {
+                Tarea t = new Tarea();
+                t.setNombre("Tarea " + i);
+                t.setEstado("PENDIENTE");
+                t.setResponsable(u);
+                t.setAsignadoPor(u);
+                t.setFechaInicio(LocalDate.now());
+                t.setFechaLimite(LocalDate.now().plusDays(i % 30));
+                t.setPuntosRecompensa(10);
+                session.persist(t);
+
+                if ((i + 1) % tramo == 0) {
+                    session.flush();
+                    session.clear();
+                    u = session.getReference(Usuario.class, u.getId());
+                }
+            }
+            session.getTransaction().commit();
+            return System.nanoTime() - inicio;
+        }
+    }
+
+    /**
+     * Construye una SessionFactory sobre una base de datos H2 en memoria
+     * nueva, con la configuración de la aplicación salvo los lotes y el
+     * tamaño del bloque de ids.
+     *
+     * @param lote {@code hibernate.jdbc.batch_size}
+     * @param bloque tamaño del bloque de ids
+     * @return SessionFactory del escenario
+     */
+    private static SessionFactory construir(int lote, int bloque) {
+        String nombre = "banco_inserciones_" + (++escenarios);
+
+        Configuration cfg = new Configuration().configure(DetectorBaseDatos.Backend.H2.getConfiguracion());
+        cfg.setProperty("hibernate.connection.url", "jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1");
+        cfg.setProperty("hibernate.hikari.poolName", nombre);
+        cfg.setProperty("hibernate.hikari.registerMbeans", "false");
+        cfg.setProperty("hibernate.cache.use_second_level_cache", "false");
+        cfg.setProperty("hibernate.cache.use_query_cache", "false");
+        cfg.setProperty("hibernate.generate_statistics", "false");
+        cfg.setProperty("hibernate.jdbc.batch_size", String.valueOf(lote));
+        cfg.setProperty(GeneradorIdBloques.TAMANIO_BLOQUE, String.valueOf(bloque));
+
+        MigradorEsquema.migrar(cfg.getProperties());
+        HibernateUtil.registrarEntidades(cfg);
+        return cfg.buildSessionFactory();
+    }
+}